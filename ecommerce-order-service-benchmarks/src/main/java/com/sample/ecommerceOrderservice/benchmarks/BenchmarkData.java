@@ -0,0 +1,48 @@
+package com.sample.ecommerceOrderservice.benchmarks;
+
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.OrderEntity;
+import com.sample.ecommerceOrderservice.entity.OrderItemEntity;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/** Deterministic fixtures shared by the benchmarks */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static List<OrderItemDTO> items(int count) {
+        List<OrderItemDTO> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new OrderItemDTO("Product " + i, 1 + i % 5, 9.99 + i));
+        }
+        return items;
+    }
+
+    static OrderEntity entity(int itemCount) {
+        OrderEntity order = new OrderEntity();
+        List<OrderItemEntity> items = new ArrayList<>(itemCount);
+        for (OrderItemDTO dto : items(itemCount)) {
+            OrderItemEntity item = new OrderItemEntity(dto.getName(), dto.getQuantity(), dto.getPrice());
+            item.setOrder(order);
+            items.add(item);
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    static List<OrderDTO> dtos(int orders, int itemsPerOrder) {
+        List<OrderItemDTO> items = items(itemsPerOrder);
+        double total = items.stream().mapToDouble(i -> i.getQuantity() * i.getPrice()).sum();
+        List<OrderDTO> result = new ArrayList<>(orders);
+        for (long id = 1; id <= orders; id++) {
+            result.add(new OrderDTO(id, OrderStatus.PENDING, new Date(1_700_000_000_000L + id), items, total,
+                    itemsPerOrder, 0L, new Date(1_700_000_000_000L + id)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sample.ecommerceOrderservice.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding a page of orders in each response format the API offers, with and without the
+ * gzip step Tomcat adds for clients that accept it. Payload sizes are deterministic, so
+ * they are printed by {@link #main} rather than measured:
+ * {@code java -cp target/benchmarks.jar com.sample.ecommerceOrderservice.benchmarks.OrderFormatBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderFormatBenchmark {
+
+    public enum Format { JSON, CBOR, SMILE }
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    Format format;
+
+    @Param({"false", "true"})
+    boolean gzip;
+
+    @Param({"50", "500"})
+    int orders;
+
+    private ObjectMapper mapper;
+    private List<OrderDTO> payload;
+
+    @Setup
+    public void setUp() {
+        mapper = mapper(format);
+        payload = BenchmarkData.dtos(orders, 3);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return encode(mapper, payload, gzip);
+    }
+
+    /** Same settings as the application's converters: ISO dates in JSON, epoch millis in the binary formats */
+    static ObjectMapper mapper(Format format) {
+        return switch (format) {
+            case JSON -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case CBOR -> Jackson2ObjectMapperBuilder.cbor()
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).factory(new CBORFactory()).build();
+            case SMILE -> Jackson2ObjectMapperBuilder.smile()
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).factory(new SmileFactory()).build();
+        };
+    }
+
+    static byte[] encode(ObjectMapper mapper, List<OrderDTO> payload, boolean gzip) throws IOException {
+        if (!gzip) {
+            return mapper.writeValueAsBytes(payload);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(out, payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Prints the encoded size of each parameter combination */
+    public static void main(String[] args) throws IOException {
+        System.out.printf("%-6s %7s %12s %12s%n", "format", "orders", "bytes", "gzip bytes");
+        for (int orders : new int[] {50, 500}) {
+            List<OrderDTO> payload = BenchmarkData.dtos(orders, 3);
+            for (Format format : Format.values()) {
+                ObjectMapper mapper = mapper(format);
+                System.out.printf("%-6s %7d %12d %12d%n", format, orders,
+                        encode(mapper, payload, false).length, encode(mapper, payload, true).length);
+            }
+        }
+    }
+}
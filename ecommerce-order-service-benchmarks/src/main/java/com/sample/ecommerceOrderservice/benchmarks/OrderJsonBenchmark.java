@@ -0,0 +1,43 @@
+package com.sample.ecommerceOrderservice.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Jackson serialization of order lists as returned by GET /api/orders */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int orders;
+
+    @Param({"1", "10"})
+    int itemsPerOrder;
+
+    private ObjectMapper mapper;
+    private List<OrderDTO> payload;
+
+    @Setup
+    public void setUp() {
+        // same date handling as the application's Boot-configured mapper
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        payload = BenchmarkData.dtos(orders, itemsPerOrder);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return mapper.writeValueAsBytes(payload);
+    }
+}
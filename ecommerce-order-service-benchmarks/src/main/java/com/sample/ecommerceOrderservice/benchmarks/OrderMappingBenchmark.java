@@ -0,0 +1,68 @@
+package com.sample.ecommerceOrderservice.benchmarks;
+
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import com.sample.ecommerceOrderservice.entity.OrderEntity;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.OrderItemRow;
+import com.sample.ecommerceOrderservice.repository.OrderRow;
+import com.sample.ecommerceOrderservice.service.OrderMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning entities and projection rows into {@link OrderDTO}s, i.e. the
+ * per-order work done by every read endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    int itemsPerOrder;
+
+    @Param({"50", "500"})
+    int pageSize;
+
+    private OrderEntity entity;
+    private List<OrderRow> rows;
+    private List<OrderItemRow> itemRows;
+
+    @Setup
+    public void setUp() {
+        entity = BenchmarkData.entity(itemsPerOrder);
+        rows = new ArrayList<>(pageSize);
+        itemRows = new ArrayList<>(pageSize * itemsPerOrder);
+        for (long id = 1; id <= pageSize; id++) {
+            rows.add(new OrderRow(id, OrderStatus.PENDING, new Date(), 100, itemsPerOrder, 0L, null));
+            for (int i = 0; i < itemsPerOrder; i++) {
+                itemRows.add(new OrderItemRow(id, "Product " + i, 1, 9.99));
+            }
+        }
+    }
+
+    /** Single order: entity with loaded items to DTO (create path) */
+    @Benchmark
+    public OrderDTO entityToDto() {
+        return OrderMapper.toDTO(entity);
+    }
+
+    /** A full page: header rows joined with item rows (list path) */
+    @Benchmark
+    public List<OrderDTO> projectionPageToDtos() {
+        return OrderMapper.toDTOs(rows, itemRows);
+    }
+
+    /** A summary page: header rows only */
+    @Benchmark
+    public List<OrderDTO> summaryPageToDtos() {
+        return OrderMapper.toSummaryDTOs(rows);
+    }
+}
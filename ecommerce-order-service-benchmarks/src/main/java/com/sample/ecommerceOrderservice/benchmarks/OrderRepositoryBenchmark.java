@@ -0,0 +1,97 @@
+package com.sample.ecommerceOrderservice.benchmarks;
+
+import com.sample.ecommerceOrderservice.EcommerceOrderServiceApplication;
+import com.sample.ecommerceOrderservice.dto.BatchOrderResult;
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.dto.OrderPage;
+import com.sample.ecommerceOrderservice.service.OrderCursor;
+import com.sample.ecommerceOrderservice.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service calls including the repository round trips against an in-memory H2, with
+ * the order cache disabled so every call reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderRepositoryBenchmark {
+
+    @Param({"10000"})
+    int orders;
+
+    @Param({"3"})
+    int itemsPerOrder;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private List<Long> ids;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EcommerceOrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "orders.cache.max-size=0",
+                        "orders.promotion.interval-ms=3600000")
+                .run();
+        orderService = context.getBean(OrderService.class);
+
+        List<OrderItemDTO> items = BenchmarkData.items(itemsPerOrder);
+        ids = new ArrayList<>(orders);
+        for (int created = 0; created < orders; created += OrderService.MAX_BATCH_ORDERS) {
+            int batch = Math.min(OrderService.MAX_BATCH_ORDERS, orders - created);
+            for (BatchOrderResult result : orderService.createOrders(Collections.nCopies(batch, items))) {
+                ids.add(result.getOrder().getId());
+            }
+        }
+
+        OrderDTO nearEnd = orderService.getOrder(ids.get(ids.size() * 9 / 10)).orElseThrow();
+        deepCursor = new OrderCursor(nearEnd.getCreatedAt(), nearEnd.getId()).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<OrderDTO> getOrder() {
+        return orderService.getOrder(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public OrderPage firstPage() {
+        return orderService.listOrderPage(Optional.empty(), Optional.empty(), 50, true);
+    }
+
+    @Benchmark
+    public OrderPage firstSummaryPage() {
+        return orderService.listOrderPage(Optional.empty(), Optional.empty(), 50, false);
+    }
+
+    /** Should cost the same as {@link #firstPage()}; keyset pages do not slow down with depth */
+    @Benchmark
+    public OrderPage deepPage() {
+        return orderService.listOrderPage(Optional.empty(), Optional.of(deepCursor), 50, true);
+    }
+}
@@ -0,0 +1,44 @@
+package com.sample.ecommerceOrderservice.benchmarks;
+
+import com.sample.ecommerceOrderservice.entity.OrderEntity;
+import com.sample.ecommerceOrderservice.entity.OrderItemEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderEntity#getTotalPrice()} is a stored column; the stream over items now
+ * only runs when the item list is set. Both sides are measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TotalPriceBenchmark {
+
+    @Param({"1", "10", "100"})
+    int itemsPerOrder;
+
+    private OrderEntity order;
+    private List<OrderItemEntity> items;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkData.entity(itemsPerOrder);
+        items = order.getItems();
+    }
+
+    @Benchmark
+    public double readStoredTotal() {
+        return order.getTotalPrice();
+    }
+
+    @Benchmark
+    public double recalculateOnSetItems() {
+        order.setItems(items);
+        return order.getTotalPrice();
+    }
+}
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Runs the load test once with platform threads and once with virtual threads and
+# prints throughput and latency side by side. Needs JDK 21+ and jq.
+#
+#   scripts/compare-threading.sh [rate] [concurrency] [duration-seconds]
+#
+# Use a concurrency well above Tomcat's 200 worker threads, otherwise both modes
+# look the same. Results are in target/load-platform.json and target/load-virtual.json.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RATE=${1:-1000}
+CONCURRENCY=${2:-400}
+DURATION=${3:-60}
+
+run() {
+  local name=$1; shift
+  mvn -B -q test -Pload-test,java21 \
+    -Dload.rate="$RATE" -Dload.concurrency="$CONCURRENCY" -Dload.duration-seconds="$DURATION" \
+    -Dload.report="target/load-$name.json" "$@"
+}
+
+run platform
+run virtual -Dspring.profiles.active=virtual-threads
+
+printf '%-10s %10s %10s %10s %10s %10s %8s\n' mode "req/s" "p50 ms" "p99 ms" "p99.9 ms" "max ms" errors
+for name in platform virtual; do
+  jq -r --arg n "$name" '.total | [$n, .throughputPerSecond, .p50Ms, .p99Ms, .p999Ms, .maxMs, .errors]
+      | "\(.[0]) \(.[1]|floor) \(.[2]) \(.[3]) \(.[4]) \(.[5]) \(.[6])"' "target/load-$name.json" \
+    | xargs printf '%-10s %10s %10s %10s %10s %10s %8s\n'
+done
@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Measures time to the first successful request and the resident memory at that point for
+# the default jar and the startup-optimized modes, and prints the median of each side by side.
+# Linux only (reads /proc); needs curl.
+#
+#   scripts/measure-startup.sh [runs]
+#
+#   default     java -jar target/*-exec.jar, as deployed today
+#   lazy        the same jar with --spring.profiles.active=startup
+#   aot         jar built with -Pstartup, extracted, startup profile, -Dspring.aot.enabled=true
+#   aot+cds     as aot, plus the class data sharing archive written by a training run
+#
+# The clock starts when the JVM is launched and stops at the first 200 from GET /api/orders?limit=1,
+# so it includes JVM start, context refresh, Flyway and the work deferred to the first request.
+# Jars and the archive are in target/startup.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+OUT=target/startup
+
+build() {
+  local name=$1; shift
+  mvn -B -q -DskipTests clean package "$@"
+  cp target/*-exec.jar "/tmp/startup-$name.jar"
+}
+
+build default
+build aot -Pstartup
+rm -rf "$OUT" && mkdir -p "$OUT"
+mv /tmp/startup-default.jar "$OUT/default.jar"
+mv /tmp/startup-aot.jar "$OUT/aot.jar"
+# an extracted jar (application jar plus lib/) keeps class paths stable, which CDS requires
+java -Djarmode=tools -jar "$OUT/aot.jar" extract --destination "$OUT/aot"
+
+AOT_OPTS=(-Dspring.aot.enabled=true)
+# training run: refreshes the context, exits and dumps the classes it loaded
+java -XX:ArchiveClassesAtExit="$OUT/application.jsa" "${AOT_OPTS[@]}" -Dspring.context.exit=onRefresh \
+  -jar "$OUT/aot/aot.jar" --spring.profiles.active=startup --server.port="$PORT" > "$OUT/training.log" 2>&1
+
+# prints "<ms> <rss KB>" for one launch
+measure() {
+  local start pid ms rss
+  start=$(date +%s%N)
+  "$@" --server.port="$PORT" > "$OUT/run.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/api/orders?limit=1"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "application exited before serving a request, see $OUT/run.log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  ms=$(( ($(date +%s%N) - start) / 1000000 ))
+  rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  echo "$ms $rss"
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+run() {
+  local name=$1; shift
+  local results=()
+  for _ in $(seq "$RUNS"); do
+    results+=("$(measure "$@")")
+  done
+  printf '%-10s %12s %12s\n' "$name" \
+    "$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)" \
+    "$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median | awk '{ print int($1 / 1024) }')"
+}
+
+printf '%-10s %12s %12s\n' mode "first ok ms" "RSS MB"
+run default java -jar "$OUT/default.jar"
+run lazy java -jar "$OUT/default.jar" --spring.profiles.active=startup
+run aot java "${AOT_OPTS[@]}" -jar "$OUT/aot/aot.jar" --spring.profiles.active=startup
+run aot+cds java -XX:SharedArchiveFile="$OUT/application.jsa" "${AOT_OPTS[@]}" \
+  -jar "$OUT/aot/aot.jar" --spring.profiles.active=startup
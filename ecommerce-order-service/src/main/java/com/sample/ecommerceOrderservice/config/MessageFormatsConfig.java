@@ -0,0 +1,42 @@
+package com.sample.ecommerceOrderservice.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * CBOR and Smile next to JSON, chosen by the Accept (responses) or Content-Type (requests)
+ * header. Both reuse Boot's Jackson settings, except that dates are written as epoch millis:
+ * a number, rather than a 29-character ISO string. JSON stays first, so clients that accept
+ * any type, or send no Accept header, still get JSON.
+ *
+ * Response compression itself is configured under server.compression.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MessageFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binary(builder).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binary(builder).factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public DeferredFlushFilter deferredFlushFilter() {
+        return new DeferredFlushFilter();
+    }
+
+    /** Boot's builder bean is prototype-scoped: each converter gets and configures its own copy */
+    private static Jackson2ObjectMapperBuilder binary(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sample.ecommerceOrderservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Per-request SQL statement counting; everything else comes from Actuator auto-configuration */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public StatementMetricsFilter statementMetricsFilter(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        return new StatementMetricsFilter(statementCounter, meterRegistry);
+    }
+}
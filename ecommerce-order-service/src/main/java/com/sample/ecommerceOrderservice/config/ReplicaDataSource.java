@@ -0,0 +1,124 @@
+package com.sample.ecommerceOrderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connections for read-only transactions, handed out by {@link LazyConnectionDataSourceProxy}.
+ * Replicas are used round-robin. A replica that fails to give a connection is skipped for
+ * {@code retryMillis} and the next one is tried; with none left, or while the current thread is
+ * pinned by {@link ReadYourWritesFilter}, the read goes to the primary.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private static final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long retryNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong primaryReads = new AtomicLong();
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        final AtomicLong reads = new AtomicLong();
+        volatile boolean down;
+        volatile long downUntil;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean available(long now) {
+            return !down || now - downUntil >= 0;
+        }
+    }
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> replicas, long retryMillis) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(ds -> new Replica(ds.getPoolName(), ds)).toList();
+        this.retryNanos = retryMillis * 1_000_000L;
+    }
+
+    /** Sends the current thread's reads to the primary until {@link #unpin()} */
+    public static void pinToPrimary() {
+        pinnedToPrimary.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        pinnedToPrimary.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (pinnedToPrimary.get() == null) {
+            int start = next.getAndIncrement();
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+                if (!replica.available(System.nanoTime())) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    if (replica.down) {
+                        log.info("Replica {} is back", replica.name);
+                        replica.down = false;
+                    }
+                    replica.reads.incrementAndGet();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.downUntil = System.nanoTime() + retryNanos;
+                    replica.down = true;
+                    log.warn("Replica {} unavailable, skipping it for {} ms: {}",
+                            replica.name, retryNanos / 1_000_000, e.getMessage());
+                }
+            }
+        }
+        primaryReads.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Replica connections use the configured credentials");
+    }
+
+    /**
+     * {@code orders.datasource.reads} counts read-only connections by target (a replica's pool
+     * name, or primary); {@code orders.datasource.replica.up} is 0 while a replica is skipped.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("orders.datasource.reads", primaryReads, AtomicLong::get)
+                .tag("target", "primary").register(registry);
+        for (Replica replica : replicas) {
+            FunctionCounter.builder("orders.datasource.reads", replica.reads, AtomicLong::get)
+                    .tag("target", replica.name).register(registry);
+            Gauge.builder("orders.datasource.replica.up", replica, r -> r.available(System.nanoTime()) ? 1 : 0)
+                    .tag("replica", replica.name).register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+}
@@ -0,0 +1,73 @@
+package com.sample.ecommerceOrderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, when orders.datasource.replica-urls is set. The application's DataSource then
+ * defers fetching a connection until the first statement, when it knows whether the
+ * transaction is read-only: read-only ones ({@code @Transactional(readOnly = true)}) get a
+ * replica, everything else, and Flyway, the primary from spring.datasource. Not available
+ * together with sharding ({@link ShardingConfig}).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "orders.datasource", name = "replica-urls")
+@ConditionalOnExpression("'${orders.sharding.shard-urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /** One pool per replica, with the primary's driver and credentials */
+    @Bean
+    public ReplicaDataSource replicaDataSource(
+            DataSourceProperties properties, HikariDataSource primaryDataSource,
+            @Value("${orders.datasource.replica-urls}") List<String> urls,
+            @Value("${orders.datasource.replica-pool-size:10}") int poolSize,
+            @Value("${orders.datasource.replica-connection-timeout-ms:1000}") long connectionTimeoutMillis,
+            @Value("${orders.datasource.replica-retry-ms:5000}") long retryMillis) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class).url(url.trim()).build();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            replica.setReadOnly(true);
+            // a replica that is down at startup must not stop the boot; reads skip it until it is up
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, retryMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${orders.datasource.sticky-ms:2000}") long stickyMillis) {
+        return new ReadYourWritesFilter(stickyMillis);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sample.ecommerceOrderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connections from the database of the shard bound to the current thread ({@link Shards#current()}).
+ * Owns the pools of shards 1..n; shard 0 is the spring.datasource pool.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setLenientFallback(false);
+    }
+
+    /** Shard databases in shard order */
+    public List<DataSource> shards() {
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Shards.current();
+    }
+
+    @Override
+    public void close() {
+        shards.stream().skip(1)
+                .filter(HikariDataSource.class::isInstance)
+                .forEach(shard -> ((HikariDataSource) shard).close());
+    }
+}
@@ -0,0 +1,92 @@
+package com.sample.ecommerceOrderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shard 0 is spring.datasource; orders.sharding.shard-urls adds shards 1..n. Without it there
+ * is one shard and the DataSource is Boot's as before.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ShardingConfig {
+
+    @Bean
+    public Shards shards(@Value("${orders.sharding.shard-urls:}") List<String> shardUrls, WorkerThreads workerThreads) {
+        return new Shards(1 + shardUrls.size(), workerThreads.named("shard-scatter-"));
+    }
+
+    /**
+     * One pool per shard behind a routing DataSource. The application's DataSource fetches a
+     * connection on the first statement, so a transaction opened before the shard is bound
+     * (by {@code @Transactional} on the service) still gets the right database.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "orders.sharding", name = "shard-urls")
+    static class ShardDataSources {
+
+        ShardDataSources(@Value("${spring.jpa.open-in-view:true}") boolean openInView,
+                         @Value("${orders.datasource.replica-urls:}") String replicaUrls) {
+            // an open-in-view session keeps its first connection, and so its shard, for the whole request
+            if (openInView) {
+                throw new IllegalStateException("orders.sharding.shard-urls needs spring.jpa.open-in-view=false");
+            }
+            if (!replicaUrls.isBlank()) {
+                throw new IllegalStateException("orders.sharding.shard-urls cannot be combined with orders.datasource.replica-urls");
+            }
+        }
+
+        @Bean
+        @FlywayDataSource
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource shard0DataSource(DataSourceProperties properties) {
+            return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        }
+
+        @Bean
+        public ShardRoutingDataSource shardRoutingDataSource(
+                DataSourceProperties properties, HikariDataSource shard0DataSource,
+                @Value("${orders.sharding.shard-urls}") List<String> urls,
+                @Value("${orders.sharding.shard-pool-size:10}") int poolSize) {
+            List<DataSource> shards = new ArrayList<>();
+            shards.add(shard0DataSource);
+            for (String url : urls) {
+                HikariDataSource shard = properties.initializeDataSourceBuilder()
+                        .type(HikariDataSource.class).url(url.trim()).build();
+                shard.setPoolName("shard-" + shards.size());
+                shard.setMaximumPoolSize(poolSize);
+                shards.add(shard);
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+
+        /** Every shard gets the same migrations; Hibernate validates shard 0 */
+        @Bean
+        public FlywayMigrationStrategy migrateEveryShard(ShardRoutingDataSource shardRoutingDataSource) {
+            return flyway -> {
+                for (DataSource shard : shardRoutingDataSource.shards()) {
+                    Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+                }
+            };
+        }
+    }
+}
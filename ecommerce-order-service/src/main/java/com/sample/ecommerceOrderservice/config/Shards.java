@@ -0,0 +1,132 @@
+package com.sample.ecommerceOrderservice.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Orders and their items are spread over {@link #count()} databases. An order's shard is in
+ * the top bits of its id ({@link #SHARD_SHIFT}), so ids of shard 0 are plain sequence values
+ * and a single database is shard 0 of one.
+ *
+ * The shard a thread works on is bound with {@link #on}; {@link ShardRoutingDataSource} and
+ * the id generator both follow it, so whatever a thread writes lands in the shard its ids
+ * name. Without a binding that is shard 0.
+ */
+public class Shards implements AutoCloseable {
+
+    /** Bits below the shard number; each shard has 2^48 ids */
+    public static final int SHARD_SHIFT = 48;
+
+    private static final ThreadLocal<Integer> bound = new ThreadLocal<>();
+
+    private final int count;
+    private final ExecutorService scatter;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /** Scatter threads are daemon platform threads */
+    public Shards(int count) {
+        this(count, task -> {
+            Thread thread = new Thread(task, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Scatter threads come from {@code threads}; see {@link WorkerThreads} */
+    public Shards(int count, ThreadFactory threads) {
+        if (count < 1 || count > 1 << (Long.SIZE - 1 - SHARD_SHIFT)) {
+            throw new IllegalArgumentException("Shard count must be between 1 and 32768, was " + count);
+        }
+        this.count = count;
+        // one task per shard per scatter call; each waits on its shard's connection pool
+        this.scatter = count == 1 ? null : Executors.newCachedThreadPool(threads);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /** Shard bound to the current thread, 0 if none */
+    public static int current() {
+        Integer shard = bound.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public static long encode(int shard, long localId) {
+        return ((long) shard << SHARD_SHIFT) | localId;
+    }
+
+    /** Shard holding {@code id}; ids that name no configured shard map to 0, where they are not found either */
+    public int shardOf(long id) {
+        long shard = id >>> SHARD_SHIFT;
+        return shard < count ? (int) shard : 0;
+    }
+
+    /** Shard for a new order: the one a caller bound, else the next one round-robin */
+    public int forNewOrder() {
+        Integer shard = bound.get();
+        return shard != null ? shard : Math.floorMod(next.getAndIncrement(), count);
+    }
+
+    /**
+     * Runs {@code work} bound to {@code shard}. A transaction that is already open must not
+     * have touched the database yet, since its connection is fetched on first use.
+     */
+    public <T> T on(int shard, Supplier<T> work) {
+        Integer previous = bound.get();
+        bound.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                bound.remove();
+            } else {
+                bound.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} once per shard, in parallel, and returns the results in shard order.
+     * Each run is on its own thread, outside the caller's transaction; with a single shard it
+     * runs on the calling thread instead.
+     */
+    public <T> List<T> onEach(Supplier<T> work) {
+        if (scatter == null) {
+            return List.of(on(0, work));
+        }
+        List<Future<T>> parts = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            parts.add(scatter.submit(() -> on(target, work)));
+        }
+        List<T> results = new ArrayList<>(count);
+        try {
+            for (Future<T> part : parts) {
+                results.add(part.get());
+            }
+        } catch (InterruptedException e) {
+            parts.forEach(part -> part.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the shards", e);
+        } catch (ExecutionException e) {
+            parts.forEach(part -> part.cancel(true));
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        if (scatter != null) {
+            scatter.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.sample.ecommerceOrderservice.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between
+ * {@link #start()} and {@link #stop()}, and optionally records their text between
+ * {@link #startRecording()} and {@link #stopRecording()}. Registered as Hibernate's
+ * statement inspector; it never rewrites the SQL.
+ */
+public class StatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+    private final ThreadLocal<List<String>> recorded = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] current = count.get();
+        if (current != null) {
+            current[0]++;
+        }
+        List<String> statements = recorded.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public void start() {
+        count.set(new int[1]);
+    }
+
+    /** Statements counted since {@link #start()}; 0 if counting was not started */
+    public int stop() {
+        int[] current = count.get();
+        count.remove();
+        return current == null ? 0 : current[0];
+    }
+
+    public void startRecording() {
+        recorded.set(new ArrayList<>());
+    }
+
+    /** SQL prepared since {@link #startRecording()}, with JDBC placeholders; empty if recording was not started */
+    public List<String> stopRecording() {
+        List<String> statements = recorded.get();
+        recorded.remove();
+        return statements == null ? List.of() : statements;
+    }
+}
@@ -0,0 +1,47 @@
+package com.sample.ecommerceOrderservice.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the number of SQL statements each HTTP request ran as
+ * {@code http.server.requests.statements}, tagged with the same method and uri
+ * template as {@code http.server.requests}. A rising count on one endpoint is the
+ * usual sign of an N+1 query.
+ */
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public StatementMetricsFilter(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        statementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = statementCounter.stop();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.statements")
+                    .description("SQL statements run per HTTP request")
+                    .tags("method", request.getMethod(), "uri", uri == null ? "UNKNOWN" : uri.toString())
+                    .serviceLevelObjectives(1, 2, 5, 10, 50, 100)
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -1,13 +1,36 @@
 package com.sample.ecommerceOrderservice.controller;
 
+import com.sample.ecommerceOrderservice.dto.BatchOrderResult;
+import com.sample.ecommerceOrderservice.dto.BulkStatusResult;
+import com.sample.ecommerceOrderservice.dto.BulkStatusUpdate;
+import com.sample.ecommerceOrderservice.dto.IngestStatus;
 import com.sample.ecommerceOrderservice.dto.OrderDTO;
 import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.dto.OrderPage;
 import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.OrderSearch;
+import com.sample.ecommerceOrderservice.repository.OrderVersion;
+import com.sample.ecommerceOrderservice.service.IdempotencyKeyReuseException;
+import com.sample.ecommerceOrderservice.service.IdempotencyStore;
+import com.sample.ecommerceOrderservice.service.OrderCache;
+import com.sample.ecommerceOrderservice.service.OrderETags;
+import com.sample.ecommerceOrderservice.service.OrderEventDispatcher;
+import com.sample.ecommerceOrderservice.service.OrderExporter;
+import com.sample.ecommerceOrderservice.service.OrderIngestQueue;
 import com.sample.ecommerceOrderservice.service.OrderService;
+import com.sample.ecommerceOrderservice.service.OrderStats;
+import com.sample.ecommerceOrderservice.service.TransitionResult;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.*;
 
 @RestController
@@ -15,44 +38,302 @@ import java.util.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderCache orderCache;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderStats orderStats;
+    private final OrderEventDispatcher eventDispatcher;
+    private final OrderExporter orderExporter;
+    /** Present only with orders.ingest.async=true */
+    private final Optional<OrderIngestQueue> ingestQueue;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderCache orderCache, IdempotencyStore idempotencyStore,
+                           OrderStats orderStats, OrderEventDispatcher eventDispatcher, OrderExporter orderExporter,
+                           Optional<OrderIngestQueue> ingestQueue) {
         this.orderService = orderService;
+        this.orderCache = orderCache;
+        this.idempotencyStore = idempotencyStore;
+        this.orderStats = orderStats;
+        this.eventDispatcher = eventDispatcher;
+        this.orderExporter = orderExporter;
+        this.ingestQueue = ingestQueue;
     }
 
+    /**
+     * 201 with the stored order. With asynchronous ingestion: 202 with the queued order
+     * (id assigned, not yet stored), or 201 once stored if {@code durable=true};
+     * 503 when the ingest queue is full.
+     *
+     * With an {@code Idempotency-Key} the order is always created synchronously, and a
+     * repeat of the request returns the original order with {@code Idempotent-Replayed: true}.
+     */
     @PostMapping
-    public ResponseEntity<OrderDTO> createOrder(@RequestBody List<OrderItemDTO> items) {
+    public ResponseEntity<OrderDTO> createOrder(@RequestBody List<OrderItemDTO> items,
+                                                @RequestParam(defaultValue = "false") boolean durable,
+                                                @RequestHeader(value = "Idempotency-Key", required = false)
+                                                String idempotencyKey)
+            throws InterruptedException {
+        if (idempotencyKey != null) {
+            IdempotencyStore.Result result = idempotencyStore.execute(idempotencyKey, items,
+                    () -> orderService.createOrder(items));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                    .body(result.order());
+        }
+        if (ingestQueue.isPresent()) {
+            return enqueue(ingestQueue.get(), items, durable);
+        }
         OrderDTO order = orderService.createOrder(items);
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
 
+    private ResponseEntity<OrderDTO> enqueue(OrderIngestQueue queue, List<OrderItemDTO> items, boolean durable)
+            throws InterruptedException {
+        Optional<OrderIngestQueue.Accepted> accepted = queue.offer(items);
+        if (accepted.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        }
+        OrderDTO order = accepted.get().order();
+        if (durable) {
+            Optional<OrderDTO> written = queue.awaitWritten(accepted.get());
+            if (written.isPresent()) {
+                return ResponseEntity.created(URI.create("/api/orders/" + order.getId())).body(written.get());
+            }
+        }
+        return ResponseEntity.accepted().location(URI.create("/api/orders/ingest/" + order.getId())).body(order);
+    }
+
+    /** Whether an order accepted with 202 is still queued, written or failed */
+    @GetMapping("/ingest/{id}")
+    public ResponseEntity<IngestStatus> ingestStatus(@PathVariable Long id) {
+        return ingestQueue.flatMap(queue -> queue.status(id))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /** Create many orders in one call; 201 when all were created, 207 when some were rejected */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchOrderResult>> createOrders(@RequestBody List<List<OrderItemDTO>> orders) {
+        List<BatchOrderResult> results = orderService.createOrders(orders);
+        boolean allCreated = results.stream().allMatch(r -> r.getOutcome() == BatchOrderResult.Outcome.CREATED);
+        return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(results);
+    }
+
+    /**
+     * 200 with ETag and Last-Modified. A request carrying If-None-Match or If-Modified-Since
+     * is first checked against the order's version alone, and gets 304 without the order
+     * (or its items) being loaded when the client's copy is current. The body may be JSON,
+     * CBOR or Smile, so responses vary by Accept.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDTO> getOrder(@PathVariable Long id) {
+    public ResponseEntity<OrderDTO> getOrder(@PathVariable Long id, @RequestHeader HttpHeaders headers) {
+        if (isConditional(headers)) {
+            Optional<OrderVersion> current = orderService.getOrderVersion(id);
+            if (current.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = OrderETags.forOrder(id, current.get().version());
+            long lastModified = current.get().updatedAt().getTime();
+            if (notModified(headers, etag, lastModified)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(lastModified)
+                        .varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
         return orderService.getOrder(id)
-                .map(ResponseEntity::ok)
+                .map(order -> ResponseEntity.ok()
+                        .eTag(OrderETags.forOrder(order.getId(), order.getVersion()))
+                        .lastModified(lastModified(order))
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(order))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Keyset page with an ETag over the ids and versions on it; 304 for a matching
+     * If-None-Match. No Last-Modified: an order created in the past can still join a page.
+     */
     @GetMapping
-    public ResponseEntity<List<OrderDTO>> listOrders(@RequestParam(required = false) OrderStatus status) {
+    public ResponseEntity<OrderPage> listOrders(@RequestParam(required = false) OrderStatus status,
+                                                @RequestParam(required = false) String after,
+                                                @RequestParam(defaultValue = "50") int limit,
+                                                @RequestParam(defaultValue = "true") boolean includeItems,
+                                                @RequestHeader HttpHeaders headers) {
+        return orderService.listOrderPage(Optional.ofNullable(status), Optional.ofNullable(after), limit,
+                        includeItems, etag -> matchesIfNoneMatch(headers, etag))
+                .map(page -> ResponseEntity.ok().eTag(page.getEtag()).varyBy(HttpHeaders.ACCEPT).body(page))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build());
+    }
+
+    /**
+     * Filtered keyset search: any of several statuses, a createdAt range (from inclusive,
+     * to exclusive, ISO-8601), a total range (inclusive) and an item name prefix. Sorted by
+     * {@code sort=createdAt|totalPrice[,asc|desc]}, then id. Paged, ETagged and negotiated
+     * like GET /api/orders; a cursor only continues the sort it was issued for.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<OrderPage> searchOrders(
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date createdTo,
+            @RequestParam(required = false) Double minTotal,
+            @RequestParam(required = false) Double maxTotal,
+            @RequestParam(required = false) String itemName,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "true") boolean includeItems,
+            @RequestHeader HttpHeaders headers) {
+        String[] sortBy = sort.split(",", 2);
+        boolean descending = sortBy.length == 2 && parseDirection(sortBy[1]);
+        OrderSearch search = new OrderSearch(status, createdFrom, createdTo, minTotal, maxTotal, itemName,
+                OrderSearch.SortField.fromAttribute(sortBy[0].trim()), descending);
+        return orderService.searchOrders(search, Optional.ofNullable(after), limit, includeItems,
+                        etag -> matchesIfNoneMatch(headers, etag))
+                .map(page -> ResponseEntity.ok().eTag(page.getEtag()).varyBy(HttpHeaders.ACCEPT).body(page))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build());
+    }
+
+    /** true for desc, false for asc */
+    private static boolean parseDirection(String direction) {
+        return switch (direction.trim().toLowerCase(Locale.ROOT)) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new IllegalArgumentException("Sort direction must be asc or desc");
+        };
+    }
+
+    /**
+     * Server-sent "status" events for every status change, optionally only for one order
+     * and/or one target status. Event ids increase; a reconnect with Last-Event-ID resumes
+     * after that event.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestParam(required = false) Long orderId,
+                             @RequestParam(required = false) OrderStatus status,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return eventDispatcher.subscribe(orderId, status, lastEventId);
+    }
+
+    /**
+     * Every matching order with its items, archived ones included, written while it is read: {@code format=ndjson}
+     * (one order per line, as GET /api/orders/{id}) or {@code format=csv} (one line per item).
+     * Filters as in search: status may repeat, createdFrom inclusive, createdTo exclusive.
+     * Memory use does not grow with the export; for bulk extracts instead of all=true.
+     */
+    @GetMapping("/export")
+    public void exportOrders(@RequestParam(required = false) Set<OrderStatus> status,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date createdFrom,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date createdTo,
+                             @RequestParam(defaultValue = "ndjson") String format,
+                             HttpServletResponse response) throws IOException {
+        OrderExporter.Format exportFormat = OrderExporter.Format.fromParameter(format);
+        if (exportFormat == OrderExporter.Format.CSV) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"");
+        } else {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        }
+        orderExporter.export(new OrderExporter.Filter(status, createdFrom, createdTo), exportFormat,
+                response.getOutputStream());
+    }
+
+    /** Unbounded listing; loads every matching order, so callers must opt in with all=true */
+    @GetMapping(params = "all=true")
+    public ResponseEntity<List<OrderDTO>> listAllOrders(@RequestParam(required = false) OrderStatus status) {
         return ResponseEntity.ok(orderService.listOrders(Optional.ofNullable(status)));
     }
 
+    /** Hit, miss and eviction counters of the single-order cache */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<OrderCache.Stats> cacheStats() {
+        return ResponseEntity.ok(orderCache.stats());
+    }
+
+    /** Order counts and revenue per status, from in-memory counters (no database access) */
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStats.Snapshot> stats() {
+        return ResponseEntity.ok(orderStats.snapshot());
+    }
+
     @PutMapping("/{id}/status")
-    public ResponseEntity<String> updateStatus(@PathVariable Long id, @RequestParam OrderStatus status) {
-        boolean updated = orderService.updateStatus(id, status);
-        return updated
-                ? ResponseEntity.ok("Order updated to " + status)
-                : ResponseEntity.status(HttpStatus.NOT_FOUND).body("Order not found");
+    public ResponseEntity<String> updateStatus(@PathVariable Long id, @RequestParam OrderStatus status,
+                                               @RequestParam(required = false) Long version) {
+        TransitionResult result = orderService.updateStatus(id, status, version);
+        return switch (result.outcome()) {
+            case APPLIED -> ResponseEntity.ok("Order updated to " + status);
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Order not found");
+            case ILLEGAL_TRANSITION -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Cannot change order from " + result.status() + " to " + status);
+            case CONFLICT -> concurrentModification();
+        };
+    }
+
+    /**
+     * Status change for many orders in one call, as {"ids": [...], "status": "SHIPPED"} or
+     * {"transitions": [{"id": 1, "status": "SHIPPED", "version": 3}, ...]}. One result per
+     * order, in request order; 200 when all were applied, 207 when some were not.
+     */
+    @PutMapping("/status")
+    public ResponseEntity<List<BulkStatusResult>> updateStatuses(@RequestBody BulkStatusUpdate update) {
+        List<BulkStatusResult> results = orderService.updateStatuses(update.toTransitions());
+        boolean allApplied = results.stream().allMatch(r -> r.getOutcome() == TransitionResult.Outcome.APPLIED);
+        return ResponseEntity.status(allApplied ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(results);
     }
 
     @PostMapping("/{id}/cancel")
     public ResponseEntity<String> cancelOrder(@PathVariable Long id) {
-        boolean canceled = orderService.cancelOrder(id);
-        if (canceled) {
-            return ResponseEntity.ok("Order canceled successfully"); // 200 OK with message
+        TransitionResult result = orderService.cancelOrder(id);
+        return switch (result.outcome()) {
+            case APPLIED -> ResponseEntity.ok("Order canceled successfully"); // 200 OK with message
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Order not found");
+            case ILLEGAL_TRANSITION -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Cannot cancel this order (status is " + result.status() + ")"); // 409 Conflict with message
+            case CONFLICT -> concurrentModification();
+        };
+    }
+
+    private static boolean isConditional(HttpHeaders headers) {
+        return headers.containsKey(HttpHeaders.IF_NONE_MATCH) || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    /** If-None-Match wins over If-Modified-Since when both are sent (RFC 9110 13.2.2) */
+    private static boolean notModified(HttpHeaders headers, String etag, long lastModified) {
+        if (headers.containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            return matchesIfNoneMatch(headers, etag);
         }
-        return ResponseEntity.status(HttpStatus.CONFLICT)
-                .body("Cannot cancel this order (not pending or not found)"); // 409 Conflict with message
+        long since = headers.getIfModifiedSince();
+        // HTTP dates have whole seconds
+        return since >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    /** Weak comparison, as GET requires: a W/ prefix on either side is ignored */
+    private static boolean matchesIfNoneMatch(HttpHeaders headers, String etag) {
+        String strong = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : headers.getIfNoneMatch()) {
+            if (candidate.equals("*") || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(strong)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long lastModified(OrderDTO order) {
+        Date updatedAt = order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt();
+        return updatedAt != null ? updatedAt.getTime() : -1;
+    }
+
+    /** Lost a race with another writer, or the client's version is stale */
+    private static ResponseEntity<String> concurrentModification() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body("Order was modified concurrently; reload and retry");
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<String> handleKeyReuse(IdempotencyKeyReuseException e) {
+        return ResponseEntity.unprocessableEntity().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
     }
 }
@@ -0,0 +1,34 @@
+package com.sample.ecommerceOrderservice.dto;
+
+/** Per-order outcome of POST /api/orders/batch, in request order */
+public class BatchOrderResult {
+
+    public enum Outcome { CREATED, REJECTED }
+
+    private int index;
+    private Outcome outcome;
+    private OrderDTO order;
+    private String error;
+
+    public BatchOrderResult() {}
+
+    private BatchOrderResult(int index, Outcome outcome, OrderDTO order, String error) {
+        this.index = index;
+        this.outcome = outcome;
+        this.order = order;
+        this.error = error;
+    }
+
+    public static BatchOrderResult created(int index, OrderDTO order) {
+        return new BatchOrderResult(index, Outcome.CREATED, order, null);
+    }
+
+    public static BatchOrderResult rejected(int index, String error) {
+        return new BatchOrderResult(index, Outcome.REJECTED, null, error);
+    }
+
+    public int getIndex() { return index; }
+    public Outcome getOutcome() { return outcome; }
+    public OrderDTO getOrder() { return order; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,27 @@
+package com.sample.ecommerceOrderservice.dto;
+
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.service.TransitionResult;
+
+/**
+ * Per-order outcome of PUT /api/orders/status, in request order. {@code status} is as in
+ * {@link TransitionResult}: the new status if applied, else the one found (null if not found).
+ */
+public class BulkStatusResult {
+
+    private Long id;
+    private TransitionResult.Outcome outcome;
+    private OrderStatus status;
+
+    public BulkStatusResult() {}
+
+    public BulkStatusResult(Long id, TransitionResult result) {
+        this.id = id;
+        this.outcome = result.outcome();
+        this.status = result.status();
+    }
+
+    public Long getId() { return id; }
+    public TransitionResult.Outcome getOutcome() { return outcome; }
+    public OrderStatus getStatus() { return status; }
+}
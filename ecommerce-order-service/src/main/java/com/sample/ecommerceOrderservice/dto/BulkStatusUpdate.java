@@ -0,0 +1,59 @@
+package com.sample.ecommerceOrderservice.dto;
+
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Body of PUT /api/orders/status: either {@code ids} and one target {@code status}, or
+ * {@code transitions}, each with its own target and optionally the version it expects.
+ */
+public class BulkStatusUpdate {
+
+    public static class Transition {
+        private Long id;
+        private OrderStatus status;
+        /** Apply only if the order is still at this version; null for any */
+        private Long version;
+
+        public Transition() {}
+        public Transition(Long id, OrderStatus status, Long version) {
+            this.id = id;
+            this.status = status;
+            this.version = version;
+        }
+
+        public Long getId() { return id; }
+        public OrderStatus getStatus() { return status; }
+        public Long getVersion() { return version; }
+    }
+
+    private List<Long> ids;
+    private OrderStatus status;
+    private List<Transition> transitions;
+
+    public BulkStatusUpdate() {}
+    public BulkStatusUpdate(List<Long> ids, OrderStatus status, List<Transition> transitions) {
+        this.ids = ids;
+        this.status = status;
+        this.transitions = transitions;
+    }
+
+    public List<Long> getIds() { return ids; }
+    public OrderStatus getStatus() { return status; }
+    public List<Transition> getTransitions() { return transitions; }
+
+    /** The requested changes as transitions, whichever form was sent */
+    public List<Transition> toTransitions() {
+        if ((ids == null) == (transitions == null)) {
+            throw new IllegalArgumentException("Send either ids with a status, or transitions");
+        }
+        if (transitions != null) {
+            return transitions;
+        }
+        if (status == null) {
+            throw new IllegalArgumentException("status is required with ids");
+        }
+        return ids.stream().map(id -> new Transition(id, status, null)).toList();
+    }
+}
@@ -0,0 +1,26 @@
+package com.sample.ecommerceOrderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** Where an order accepted by asynchronous ingestion is: still queued, written, or failed */
+public class IngestStatus {
+
+    public enum State { QUEUED, WRITTEN, FAILED }
+
+    private Long id;
+    private State state;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public IngestStatus() {}
+
+    public IngestStatus(Long id, State state, String error) {
+        this.id = id;
+        this.state = state;
+        this.error = error;
+    }
+
+    public Long getId() { return id; }
+    public State getState() { return state; }
+    public String getError() { return error; }
+}
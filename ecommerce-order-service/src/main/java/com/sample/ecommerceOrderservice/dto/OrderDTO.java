@@ -1,6 +1,7 @@
 package com.sample.ecommerceOrderservice.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.sample.ecommerceOrderservice.entity.OrderStatus;
 
 import java.util.Date;
@@ -10,17 +11,40 @@ public class OrderDTO {
     private Long id;
     private OrderStatus status;
     private Date createdAt;
+    /** Null in summary views, which skip item loading entirely */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<OrderItemDTO> items;
     private double totalPrice;
+    private int itemCount;
+    private Long version;
+    private Date updatedAt;
 
     public OrderDTO() {}
 
     public OrderDTO(Long id, OrderStatus status, Date createdAt, List<OrderItemDTO> items, double totalPrice) {
+        this(id, status, createdAt, items, totalPrice, items == null ? 0 : items.size());
+    }
+
+    public OrderDTO(Long id, OrderStatus status, Date createdAt, List<OrderItemDTO> items, double totalPrice,
+                    int itemCount) {
+        this(id, status, createdAt, items, totalPrice, itemCount, null);
+    }
+
+    public OrderDTO(Long id, OrderStatus status, Date createdAt, List<OrderItemDTO> items, double totalPrice,
+                    int itemCount, Long version) {
+        this(id, status, createdAt, items, totalPrice, itemCount, version, null);
+    }
+
+    public OrderDTO(Long id, OrderStatus status, Date createdAt, List<OrderItemDTO> items, double totalPrice,
+                    int itemCount, Long version, Date updatedAt) {
         this.id = id;
         this.status = status;
         this.createdAt = createdAt;
         this.items = items;
         this.totalPrice = totalPrice;
+        this.itemCount = itemCount;
+        this.version = version;
+        this.updatedAt = updatedAt;
     }
 
     public Long getId() { return id; }
@@ -28,4 +52,7 @@ public class OrderDTO {
     public Date getCreatedAt() { return createdAt; }
     public List<OrderItemDTO> getItems() { return items; }
     public double getTotalPrice() { return totalPrice; }
+    public int getItemCount() { return itemCount; }
+    public Long getVersion() { return version; }
+    public Date getUpdatedAt() { return updatedAt; }
 }
@@ -0,0 +1,30 @@
+package com.sample.ecommerceOrderservice.dto;
+
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+
+import java.util.Date;
+
+/** One status change as sent on GET /api/orders/events; {@code id} is also the SSE event id */
+public class OrderEventDTO {
+    private Long id;
+    private Long orderId;
+    private OrderStatus fromStatus;
+    private OrderStatus toStatus;
+    private Date occurredAt;
+
+    public OrderEventDTO() {}
+
+    public OrderEventDTO(Long id, Long orderId, OrderStatus fromStatus, OrderStatus toStatus, Date occurredAt) {
+        this.id = id;
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public OrderStatus getFromStatus() { return fromStatus; }
+    public OrderStatus getToStatus() { return toStatus; }
+    public Date getOccurredAt() { return occurredAt; }
+}
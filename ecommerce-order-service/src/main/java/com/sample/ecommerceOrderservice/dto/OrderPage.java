@@ -0,0 +1,33 @@
+package com.sample.ecommerceOrderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated order listing. {@code nextCursor} is an opaque
+ * token to pass back as {@code after}; it is {@code null} on the last page.
+ */
+public class OrderPage {
+    private List<OrderDTO> items;
+    private String nextCursor;
+    /** Sent as the ETag header, not in the body */
+    @JsonIgnore
+    private String etag;
+
+    public OrderPage() {}
+
+    public OrderPage(List<OrderDTO> items, String nextCursor) {
+        this(items, nextCursor, null);
+    }
+
+    public OrderPage(List<OrderDTO> items, String nextCursor, String etag) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.etag = etag;
+    }
+
+    public List<OrderDTO> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public String getEtag() { return etag; }
+}
@@ -0,0 +1,48 @@
+package com.sample.ecommerceOrderservice.entity;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * A DELIVERED or CANCELED order moved out of {@code orders} by the archiver. Same id and
+ * columns as the live row; rows here never change again.
+ */
+@Entity
+@Table(name = "orders_archive")
+public class ArchivedOrderEntity {
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    private Long version;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+
+    @Column(name = "total_price", nullable = false)
+    private double totalPrice;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date archivedAt;
+
+    public ArchivedOrderEntity() {}
+
+    public Long getId() { return id; }
+    public OrderStatus getStatus() { return status; }
+    public Long getVersion() { return version; }
+    public Date getCreatedAt() { return createdAt; }
+    public Date getUpdatedAt() { return updatedAt; }
+    public double getTotalPrice() { return totalPrice; }
+    public int getItemCount() { return itemCount; }
+    public Date getArchivedAt() { return archivedAt; }
+}
@@ -0,0 +1,26 @@
+package com.sample.ecommerceOrderservice.entity;
+
+import jakarta.persistence.*;
+
+/** Item of an {@link ArchivedOrderEntity}; keeps the id it had in {@code order_items} */
+@Entity
+@Table(name = "order_items_archive")
+public class ArchivedOrderItemEntity {
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    private String name;
+    private int quantity;
+    private double price;
+
+    public ArchivedOrderItemEntity() {}
+
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public String getName() { return name; }
+    public int getQuantity() { return quantity; }
+    public double getPrice() { return price; }
+}
@@ -0,0 +1,35 @@
+package com.sample.ecommerceOrderservice.entity;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * Response recorded for an Idempotency-Key on POST /api/orders. Written in the same
+ * transaction as the order, so a key exists exactly when its order does.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKeyEntity {
+    @Id
+    private String idempotencyKey;
+
+    /** SHA-256 of the request body; a reused key with a different body is refused */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    /** The OrderDTO returned to the first request, as JSON */
+    @Lob
+    @Column(nullable = false)
+    private String response;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date expiresAt;
+
+    public IdempotencyKeyEntity() {}
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public String getRequestHash() { return requestHash; }
+    public String getResponse() { return response; }
+    public Date getExpiresAt() { return expiresAt; }
+}
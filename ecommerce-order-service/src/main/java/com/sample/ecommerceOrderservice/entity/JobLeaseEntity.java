@@ -0,0 +1,28 @@
+package com.sample.ecommerceOrderservice.entity;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * Time-bounded claim on a unit of background work. A row exists while some
+ * instance holds the lease; an expired row may be taken over by anyone.
+ */
+@Entity
+@Table(name = "job_leases")
+public class JobLeaseEntity {
+    @Id
+    private String leaseKey;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date expiresAt;
+
+    public JobLeaseEntity() {}
+
+    public String getLeaseKey() { return leaseKey; }
+    public String getOwner() { return owner; }
+    public Date getExpiresAt() { return expiresAt; }
+}
@@ -7,29 +7,54 @@ import java.util.*;
 @Table(name = "orders")
 public class OrderEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedSequence("orders_seq")
     private Long id;
 
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.PENDING;
 
+    /** Optimistic lock; bulk status updates bump it explicitly */
+    @Version
+    private Long version;
+
     @Temporal(TemporalType.TIMESTAMP)
     private Date createdAt = new Date();
 
+    /** Last status change (creation time until then); Last-Modified of GET /api/orders/{id} */
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt = createdAt;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItemEntity> items = new ArrayList<>();
 
+    /** Denormalized from items so listings and summaries never need order_items */
+    @Column(name = "total_price", nullable = false)
+    private double totalPrice;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
     public OrderEntity() {}
 
     public Long getId() { return id; }
     public OrderStatus getStatus() { return status; }
+    public Long getVersion() { return version; }
     public Date getCreatedAt() { return createdAt; }
+    public Date getUpdatedAt() { return updatedAt; }
     public List<OrderItemEntity> getItems() { return items; }
-    public void setItems(List<OrderItemEntity> items) { this.items = items; }
+    public double getTotalPrice() { return totalPrice; }
+    public int getItemCount() { return itemCount; }
     public void setStatus(OrderStatus status) { this.status = status; }
 
-    @Transient
-    public double getTotalPrice() {
-        return items.stream().mapToDouble(OrderItemEntity::getTotal).sum();
+    public void setItems(List<OrderItemEntity> items) {
+        this.items = items;
+        recalculateTotals();
+    }
+
+    /** Items are only written together with the order, so persisting is the last chance to fix the totals */
+    @PrePersist
+    void recalculateTotals() {
+        this.totalPrice = items.stream().mapToDouble(OrderItemEntity::getTotal).sum();
+        this.itemCount = items.size();
     }
 }
@@ -0,0 +1,52 @@
+package com.sample.ecommerceOrderservice.entity;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * Outbox row for one status change, written in the transaction that made the change.
+ * {@code seq} is assigned after commit, in the order rows become visible, and is what
+ * GET /api/orders/events sends as the event id.
+ */
+@Entity
+@Table(name = "order_events")
+public class OrderEventEntity {
+    /** Identity rather than a sequence: the promotion job inserts these with INSERT ... SELECT */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus toStatus;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date occurredAt;
+
+    /** Null until the dispatcher has sequenced the row */
+    private Long seq;
+
+    public OrderEventEntity() {}
+
+    public OrderEventEntity(Long orderId, OrderStatus fromStatus, OrderStatus toStatus) {
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.occurredAt = new Date();
+    }
+
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public OrderStatus getFromStatus() { return fromStatus; }
+    public OrderStatus getToStatus() { return toStatus; }
+    public Date getOccurredAt() { return occurredAt; }
+    public Long getSeq() { return seq; }
+}
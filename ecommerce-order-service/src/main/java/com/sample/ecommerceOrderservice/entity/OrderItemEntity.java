@@ -7,7 +7,7 @@ import jakarta.persistence.*;
 @Table(name = "order_items")
 public class OrderItemEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedSequence("order_items_seq")
     private Long id;
 
     private String name;
@@ -1,6 +1,37 @@
 package com.sample.ecommerceOrderservice.entity;
 
+import java.util.*;
+
 public enum OrderStatus {
-    PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELED
-}
+    PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELED;
+
+    /** Allowed transitions: source status -> statuses it may move to */
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(PROCESSING, CANCELED));
+        TRANSITIONS.put(PROCESSING, EnumSet.of(SHIPPED));
+        TRANSITIONS.put(SHIPPED, EnumSet.of(DELIVERED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELED, EnumSet.noneOf(OrderStatus.class));
 
+        for (OrderStatus status : values()) {
+            SOURCES.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        TRANSITIONS.forEach((from, targets) -> targets.forEach(to -> SOURCES.get(to).add(from)));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /** Statuses from which an order may move into this one; empty for PENDING */
+    public Set<OrderStatus> allowedSources() {
+        return Collections.unmodifiableSet(SOURCES.get(this));
+    }
+
+    public boolean isTerminal() {
+        return TRANSITIONS.get(this).isEmpty();
+    }
+}
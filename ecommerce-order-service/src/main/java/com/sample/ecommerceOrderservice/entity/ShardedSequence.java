@@ -0,0 +1,23 @@
+package com.sample.ecommerceOrderservice.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id from the named sequence of the current shard, with the shard encoded in the id's top
+ * bits; see {@link ShardedSequenceGenerator}.
+ */
+@IdGeneratorType(ShardedSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedSequence {
+
+    /** Sequence name; its increment must equal {@link #blockSize()} */
+    String value();
+
+    int blockSize() default 50;
+}
@@ -0,0 +1,74 @@
+package com.sample.ecommerceOrderservice.entity;
+
+import com.sample.ecommerceOrderservice.config.Shards;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pooled sequence ids, kept apart per shard. The sequence is read on the session's connection,
+ * which belongs to the shard bound to the thread ({@link Shards#current()}); a value {@code v}
+ * reserves {@code (v - blockSize, v]} of that shard, as Hibernate's pooled optimizer and
+ * {@code SequenceBlockAllocator} do, and each id carries the shard in its top bits. On shard 0
+ * the ids are the same as those of a plain {@code @SequenceGenerator}.
+ */
+public class ShardedSequenceGenerator implements IdentifierGenerator {
+
+    private final String sequence;
+    private final int blockSize;
+    private final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+
+    private static final class Block {
+        /** Not a monitor: a virtual thread waiting on the sequence must not pin its carrier */
+        final ReentrantLock lock = new ReentrantLock();
+        long next;
+        long last = -1;
+    }
+
+    public ShardedSequenceGenerator(ShardedSequence config) {
+        this.sequence = config.value();
+        this.blockSize = config.blockSize();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner) {
+        int shard = Shards.current();
+        Block block = blocks.computeIfAbsent(shard, s -> new Block());
+        block.lock.lock();
+        try {
+            if (block.next > block.last) {
+                long hi = nextValue(session);
+                // the very first value of a fresh sequence has no full block below it
+                block.next = Math.max(1, hi - blockSize + 1);
+                block.last = hi;
+            }
+            return Shards.encode(shard, block.next++);
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    private long nextValue(SharedSessionContractImplementor session) {
+        String sql = session.getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(sequence);
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            ResultSet resultSet = jdbc.getResultSetReturn().extract(statement, sql);
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(e, "Could not read the next value of " + sequence, sql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+}
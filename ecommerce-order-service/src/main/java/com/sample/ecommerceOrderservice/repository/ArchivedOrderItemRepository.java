@@ -0,0 +1,27 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import com.sample.ecommerceOrderservice.entity.ArchivedOrderItemEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItemEntity, Long> {
+
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderItemRow(i.orderId, i.name, i.quantity, i.price)
+            from ArchivedOrderItemEntity i
+            where i.orderId in :orderIds
+            order by i.orderId, i.id""")
+    List<OrderItemRow> findRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            insert into ArchivedOrderItemEntity (id, orderId, name, quantity, price)
+            select i.id, i.order.id, i.name, i.quantity, i.price
+            from OrderItemEntity i where i.order.id in :orderIds""")
+    int copyFromOrderItems(@Param("orderIds") Collection<Long> orderIds);
+}
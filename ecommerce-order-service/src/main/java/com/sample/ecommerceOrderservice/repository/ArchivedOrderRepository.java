@@ -0,0 +1,49 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import com.sample.ecommerceOrderservice.entity.ArchivedOrderEntity;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/** Cold side of the orders table; same projections as {@link OrderRepository} */
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrderEntity, Long> {
+
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderRow(o.id, o.status, o.createdAt, o.totalPrice, o.itemCount, o.version,
+                    o.updatedAt)
+            from ArchivedOrderEntity o where o.id = :id""")
+    Optional<OrderRow> findRowById(@Param("id") Long id);
+
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderVersion(o.version, o.updatedAt)
+            from ArchivedOrderEntity o where o.id = :id""")
+    Optional<OrderVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select o.status from ArchivedOrderEntity o where o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderState(o.id, o.status, o.version, o.totalPrice)
+            from ArchivedOrderEntity o where o.id in :ids""")
+    List<OrderState> findStates(@Param("ids") Collection<Long> ids);
+
+    /** Copies the given live orders, unchanged, with the current time as archivedAt */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            insert into ArchivedOrderEntity (id, status, version, createdAt, updatedAt, totalPrice, itemCount, archivedAt)
+            select o.id, o.status, o.version, o.createdAt, coalesce(o.updatedAt, o.createdAt), o.totalPrice, o.itemCount,
+                   current_timestamp
+            from OrderEntity o where o.id in :ids""")
+    int copyFromOrders(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.StatusTotals(o.status, count(o), coalesce(sum(o.totalPrice), 0.0))
+            from ArchivedOrderEntity o group by o.status""")
+    List<StatusTotals> totalsByStatus();
+}
@@ -0,0 +1,32 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import com.sample.ecommerceOrderservice.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    @Query("select k from IdempotencyKeyEntity k where k.idempotencyKey = :key and k.expiresAt >= :now")
+    Optional<IdempotencyKeyEntity> findLive(@Param("key") String key, @Param("now") Date now);
+
+    /** Plain insert so a concurrent first use of the key fails on the primary key instead of being merged */
+    @Modifying
+    @Query(value = """
+            insert into idempotency_keys (idempotency_key, request_hash, response, expires_at)
+            values (:key, :requestHash, :response, :expiresAt)""", nativeQuery = true)
+    int insert(@Param("key") String key, @Param("requestHash") String requestHash,
+               @Param("response") String response, @Param("expiresAt") Date expiresAt);
+
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") Date now);
+
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.idempotencyKey = :key and k.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") Date now);
+}
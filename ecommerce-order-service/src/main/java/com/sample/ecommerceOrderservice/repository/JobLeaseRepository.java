@@ -0,0 +1,30 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import com.sample.ecommerceOrderservice.entity.JobLeaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+
+public interface JobLeaseRepository extends JpaRepository<JobLeaseEntity, String> {
+
+    /** Take over an expired lease (or extend our own); returns 1 on success */
+    @Modifying
+    @Query("""
+            update JobLeaseEntity l set l.owner = :owner, l.expiresAt = :expiresAt
+            where l.leaseKey = :key and (l.expiresAt < :now or l.owner = :owner)""")
+    int takeOver(@Param("key") String key, @Param("owner") String owner,
+                 @Param("expiresAt") Date expiresAt, @Param("now") Date now);
+
+    /** Plain insert so a concurrent claim fails on the primary key instead of being merged */
+    @Modifying
+    @Query(value = "insert into job_leases (lease_key, owner, expires_at) values (:key, :owner, :expiresAt)",
+            nativeQuery = true)
+    int insert(@Param("key") String key, @Param("owner") String owner, @Param("expiresAt") Date expiresAt);
+
+    @Modifying
+    @Query("delete from JobLeaseEntity l where l.leaseKey = :key and l.owner = :owner")
+    int release(@Param("key") String key, @Param("owner") String owner);
+}
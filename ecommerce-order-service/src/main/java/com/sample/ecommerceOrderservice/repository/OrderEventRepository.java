@@ -0,0 +1,66 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import com.sample.ecommerceOrderservice.entity.OrderEventEntity;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEventEntity, Long> {
+
+    /**
+     * One outbox row per order in [fromId, toId) currently in {@code from}; run before
+     * {@link OrderRepository#transitionRange} with the same arguments, after locking the rows.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            insert into OrderEventEntity (orderId, fromStatus, toStatus, occurredAt)
+            select o.id, o.status, :to, current_timestamp from OrderEntity o
+            where o.status = :from and o.id >= :fromId and o.id < :toId""")
+    int insertRangeTransitions(@Param("from") OrderStatus from, @Param("to") OrderStatus to,
+                               @Param("fromId") long fromId, @Param("toId") long toId);
+
+    /** As {@link #insertRangeTransitions}, for the given orders; run before {@link OrderRepository#transitionAll} */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            insert into OrderEventEntity (orderId, fromStatus, toStatus, occurredAt)
+            select o.id, o.status, :to, current_timestamp from OrderEntity o where o.id in :ids""")
+    int insertTransitions(@Param("ids") Collection<Long> ids, @Param("to") OrderStatus to);
+
+    @Query("select e.id from OrderEventEntity e where e.seq is null order by e.id")
+    List<Long> findUnsequencedIds(Limit limit);
+
+    @Query("select max(e.seq) from OrderEventEntity e")
+    Long findMaxSeq();
+
+    /**
+     * Sequences the committed, unsequenced rows in [fromId, toId] as {@code id + offset}.
+     * Gaps are fine; an offset above every existing seq keeps the order of visibility.
+     */
+    @Modifying
+    @Query("update OrderEventEntity e set e.seq = e.id + :offset where e.seq is null and e.id >= :fromId and e.id <= :toId")
+    int assignSeq(@Param("fromId") long fromId, @Param("toId") long toId, @Param("offset") long offset);
+
+    @Query("select e from OrderEventEntity e where e.seq > :after order by e.seq")
+    List<OrderEventEntity> findSequencedAfter(@Param("after") long after, Limit limit);
+
+    /** Events after {@code after} for one subscription; either filter may be null */
+    @Query("""
+            select e from OrderEventEntity e
+            where e.seq > :after
+              and (:orderId is null or e.orderId = :orderId)
+              and (:status is null or e.toStatus = :status)
+            order by e.seq""")
+    List<OrderEventEntity> findForReplay(@Param("after") long after, @Param("orderId") Long orderId,
+                                         @Param("status") OrderStatus status, Limit limit);
+
+    @Modifying
+    @Query("delete from OrderEventEntity e where e.seq is not null and e.occurredAt < :cutoff")
+    int deleteSequencedBefore(@Param("cutoff") Date cutoff);
+}
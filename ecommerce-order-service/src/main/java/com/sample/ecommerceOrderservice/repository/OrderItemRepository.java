@@ -1,7 +1,34 @@
 package com.sample.ecommerceOrderservice.repository;
 
 import com.sample.ecommerceOrderservice.entity.OrderItemEntity;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderItemRepository extends JpaRepository<OrderItemEntity, Long> { }
+import java.util.Collection;
+import java.util.List;
 
+public interface OrderItemRepository extends JpaRepository<OrderItemEntity, Long> {
+
+    /** Items of the given orders in one statement, grouped by order */
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderItemRow(i.order.id, i.name, i.quantity, i.price)
+            from OrderItemEntity i
+            where i.order.id in :orderIds
+            order by i.order.id, i.id""")
+    List<OrderItemRow> findRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    /** Items of every order (optionally in one status), for the unbounded listing */
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderItemRow(i.order.id, i.name, i.quantity, i.price)
+            from OrderItemEntity i
+            where :status is null or i.order.status = :status
+            order by i.order.id, i.id""")
+    List<OrderItemRow> findAllRows(@Param("status") OrderStatus status);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from OrderItemEntity i where i.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
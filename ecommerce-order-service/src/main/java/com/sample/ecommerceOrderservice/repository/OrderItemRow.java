@@ -0,0 +1,5 @@
+package com.sample.ecommerceOrderservice.repository;
+
+/** Read-only projection of an order item, keyed by its order */
+public record OrderItemRow(Long orderId, String name, int quantity, double price) {
+}
@@ -2,10 +2,165 @@ package com.sample.ecommerceOrderservice.repository;
 
 import com.sample.ecommerceOrderservice.entity.OrderEntity;
 import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
+public interface OrderRepository extends JpaRepository<OrderEntity, Long>, OrderSearchRepository {
     List<OrderEntity> findByStatus(OrderStatus status);
+
+    /*
+     * Read path: header projections only. Items are fetched separately through
+     * OrderItemRepository in one query per call, so no entity is hydrated and the
+     * statement count does not grow with the number of orders returned.
+     */
+
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderRow(o.id, o.status, o.createdAt, o.totalPrice, o.itemCount, o.version,
+                    coalesce(o.updatedAt, o.createdAt))
+            from OrderEntity o where o.id = :id""")
+    Optional<OrderRow> findRowById(@Param("id") Long id);
+
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderRow(o.id, o.status, o.createdAt, o.totalPrice, o.itemCount, o.version,
+                    coalesce(o.updatedAt, o.createdAt))
+            from OrderEntity o
+            where :status is null or o.status = :status
+            order by o.createdAt, o.id""")
+    List<OrderRow> findAllRows(@Param("status") OrderStatus status);
+
+    /**
+     * First keyset page, ordered by (createdAt, id). The status variants also order by the
+     * (constant) status, so the (status, createdAt, id) index is read in order without a sort.
+     */
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderRow(o.id, o.status, o.createdAt, o.totalPrice, o.itemCount, o.version,
+                    coalesce(o.updatedAt, o.createdAt))
+            from OrderEntity o
+            order by o.createdAt, o.id""")
+    List<OrderRow> findPageRows(Limit limit);
+
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderRow(o.id, o.status, o.createdAt, o.totalPrice, o.itemCount, o.version,
+                    coalesce(o.updatedAt, o.createdAt))
+            from OrderEntity o
+            where o.status = :status
+            order by o.status, o.createdAt, o.id""")
+    List<OrderRow> findPageRowsByStatus(@Param("status") OrderStatus status, Limit limit);
+
+    /**
+     * Keyset page strictly after the given (createdAt, id) position. The redundant
+     * createdAt >= bound lets the index seek to the position instead of walking from the
+     * first row.
+     */
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderRow(o.id, o.status, o.createdAt, o.totalPrice, o.itemCount, o.version,
+                    coalesce(o.updatedAt, o.createdAt))
+            from OrderEntity o
+            where o.createdAt >= :createdAt and (o.createdAt > :createdAt or o.id > :id)
+            order by o.createdAt, o.id""")
+    List<OrderRow> findPageRowsAfter(@Param("createdAt") Date createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderRow(o.id, o.status, o.createdAt, o.totalPrice, o.itemCount, o.version,
+                    coalesce(o.updatedAt, o.createdAt))
+            from OrderEntity o
+            where o.status = :status
+              and o.createdAt >= :createdAt and (o.createdAt > :createdAt or o.id > :id)
+            order by o.status, o.createdAt, o.id""")
+    List<OrderRow> findPageRowsAfterByStatus(@Param("status") OrderStatus status, @Param("createdAt") Date createdAt,
+                                             @Param("id") Long id, Limit limit);
+
+    /** Lowest id >= fromId in the given status, or null when there is none */
+    @Query("select min(o.id) from OrderEntity o where o.status = :status and o.id >= :fromId")
+    Long findFirstIdByStatusFrom(@Param("status") OrderStatus status, @Param("fromId") long fromId);
+
+    /** Set-based status change for every order in [fromId, toId) currently in {@code from} */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update OrderEntity o set o.status = :to, o.version = o.version + 1, o.updatedAt = current_timestamp
+            where o.status = :from and o.id >= :fromId and o.id < :toId""")
+    int transitionRange(@Param("from") OrderStatus from, @Param("to") OrderStatus to,
+                        @Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Single-statement status change: applies only if the order is still in one of
+     * {@code from} (and at {@code version}, when given). Returns the number of rows changed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update OrderEntity o set o.status = :to, o.version = o.version + 1, o.updatedAt = current_timestamp
+            where o.id = :id and o.status in :from
+              and (:version is null or o.version = :version)""")
+    int transition(@Param("id") Long id, @Param("from") Collection<OrderStatus> from,
+                   @Param("to") OrderStatus to, @Param("version") Long version);
+
+    /**
+     * Locks the given orders, in id order, and returns their states, so the following
+     * {@link #transitionAll} calls change exactly the rows judged from them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderState(o.id, o.status, o.version, o.totalPrice)
+            from OrderEntity o where o.id in :ids order by o.id""")
+    List<OrderState> lockStates(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Set-based status change for the given orders, which {@link #lockStates} has locked and
+     * found in a status that may move to {@code to}; by id alone, through the primary key.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update OrderEntity o set o.status = :to, o.version = o.version + 1, o.updatedAt = current_timestamp
+            where o.id in :ids""")
+    int transitionAll(@Param("ids") Collection<Long> ids, @Param("to") OrderStatus to);
+
+    /** Orders in one of {@code statuses}, unchanged since {@code cutoff}, after {@code afterId}; archiver candidates */
+    @Query("""
+            select o.id from OrderEntity o
+            where o.status in :statuses and o.id > :afterId and coalesce(o.updatedAt, o.createdAt) < :cutoff
+            order by o.id""")
+    List<Long> findIdsUnchangedSince(@Param("statuses") Collection<OrderStatus> statuses, @Param("afterId") long afterId,
+                                     @Param("cutoff") Date cutoff, Limit limit);
+
+    /** Deletes the given orders; their items must be gone already */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderEntity o where o.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select o.status from OrderEntity o where o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+    /** Version and last change of one order; answers conditional GETs without touching items */
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.OrderVersion(o.version, coalesce(o.updatedAt, o.createdAt))
+            from OrderEntity o where o.id = :id""")
+    Optional<OrderVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select o.totalPrice from OrderEntity o where o.id = :id")
+    Optional<Double> findTotalPriceById(@Param("id") Long id);
+
+    /**
+     * Locks the orders in [fromId, toId) that are in {@code status} and returns their
+     * totals, so a following {@link #transitionRange} changes exactly these rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.totalPrice from OrderEntity o where o.status = :status and o.id >= :fromId and o.id < :toId")
+    List<Double> lockTotalsInRange(@Param("status") OrderStatus status, @Param("fromId") long fromId,
+                                   @Param("toId") long toId);
+
+    /** Order count and revenue per status, for rebuilding {@code OrderStats} */
+    @Query("""
+            select new com.sample.ecommerceOrderservice.repository.StatusTotals(o.status, count(o), coalesce(sum(o.totalPrice), 0.0))
+            from OrderEntity o group by o.status""")
+    List<StatusTotals> totalsByStatus();
 }
@@ -0,0 +1,10 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+
+import java.util.Date;
+
+/** Read-only projection of an order header; never a managed entity */
+public record OrderRow(Long id, OrderStatus status, Date createdAt, double totalPrice, int itemCount, Long version,
+                       Date updatedAt) {
+}
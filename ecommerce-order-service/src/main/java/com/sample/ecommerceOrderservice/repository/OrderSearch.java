@@ -0,0 +1,93 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Filters and ordering of an order search; every filter is optional (null or empty).
+ * {@code createdFrom} is inclusive and {@code createdTo} exclusive, the totals are
+ * inclusive, and {@code itemNamePrefix} matches orders with at least one item whose
+ * name starts with it (case-sensitive).
+ */
+public record OrderSearch(Set<OrderStatus> statuses, Date createdFrom, Date createdTo, Double minTotal,
+                          Double maxTotal, String itemNamePrefix, SortField sort, boolean descending) {
+
+    public OrderSearch {
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        if (createdFrom != null && createdTo != null && !createdFrom.before(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        if (minTotal != null && maxTotal != null && minTotal > maxTotal) {
+            throw new IllegalArgumentException("minTotal must not be greater than maxTotal");
+        }
+        if (itemNamePrefix != null && itemNamePrefix.isEmpty()) {
+            itemNamePrefix = null;
+        }
+        if (sort == null) {
+            sort = SortField.CREATED_AT;
+        }
+    }
+
+    /** Order of the rows a search returns: sort value, then id, both in the search's direction */
+    @SuppressWarnings("unchecked")
+    public Comparator<OrderRow> rowOrder() {
+        Comparator<OrderRow> order = Comparator.<OrderRow, Comparable<Object>>comparing(
+                row -> (Comparable<Object>) sort.valueOf(row)).thenComparingLong(OrderRow::id);
+        return descending ? order.reversed() : order;
+    }
+
+    /** Keyset position: the sort value and id of the last row of the previous page */
+    public record Position(Object value, long id) {}
+
+    /** Orderings a search supports; each is backed by an index ending in id */
+    public enum SortField {
+        CREATED_AT("createdAt") {
+            @Override
+            public Object valueOf(OrderRow row) { return row.createdAt(); }
+
+            @Override
+            public String format(Object value) { return Long.toString(((Date) value).getTime()); }
+
+            @Override
+            public Object parse(String raw) { return new Date(Long.parseLong(raw)); }
+        },
+        TOTAL_PRICE("totalPrice") {
+            @Override
+            public Object valueOf(OrderRow row) { return row.totalPrice(); }
+
+            @Override
+            public String format(Object value) { return Double.toString((Double) value); }
+
+            @Override
+            public Object parse(String raw) { return Double.parseDouble(raw); }
+        };
+
+        private final String attribute;
+
+        SortField(String attribute) {
+            this.attribute = attribute;
+        }
+
+        /** Entity attribute and request parameter name */
+        public String attribute() { return attribute; }
+
+        public abstract Object valueOf(OrderRow row);
+
+        public abstract String format(Object value);
+
+        public abstract Object parse(String raw);
+
+        /** @throws IllegalArgumentException for anything but an {@link #attribute()} name */
+        public static SortField fromAttribute(String attribute) {
+            for (SortField field : values()) {
+                if (field.attribute.equalsIgnoreCase(attribute)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Cannot sort by " + attribute + "; use createdAt or totalPrice");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+/** Dynamic order search; the query is assembled from the filters that are set in {@link OrderSearchRepositoryImpl} */
+public interface OrderSearchRepository {
+
+    /**
+     * Header rows matching {@code search}, ordered by its sort field and then id, starting
+     * strictly after {@code after} when given. Like the keyset listing, the cost of a page
+     * does not depend on how deep it is.
+     */
+    List<OrderRow> search(OrderSearch search, OrderSearch.Position after, Limit limit);
+}
@@ -0,0 +1,105 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the search as one JPQL query projecting straight into {@link OrderRow}, with only
+ * the conditions that are set. Each condition is a plain comparison on an indexed column,
+ * never a function of one, so the database can seek on whichever is most selective.
+ *
+ * JPQL rather than the Criteria API: Criteria renders ORDER BY as select-list positions,
+ * and H2 then no longer picks the index that returns rows in order.
+ */
+class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private final EntityManager entityManager;
+
+    OrderSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<OrderRow> search(OrderSearch search, OrderSearch.Position after, Limit limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (search.statuses().size() == 1) {
+            conditions.add("o.status = :status");
+            parameters.put("status", search.statuses().iterator().next());
+        } else if (!search.statuses().isEmpty()) {
+            conditions.add("o.status in :statuses");
+            parameters.put("statuses", search.statuses());
+        }
+        if (search.createdFrom() != null) {
+            conditions.add("o.createdAt >= :createdFrom");
+            parameters.put("createdFrom", search.createdFrom());
+        }
+        if (search.createdTo() != null) {
+            conditions.add("o.createdAt < :createdTo");
+            parameters.put("createdTo", search.createdTo());
+        }
+        if (search.minTotal() != null) {
+            conditions.add("o.totalPrice >= :minTotal");
+            parameters.put("minTotal", search.minTotal());
+        }
+        if (search.maxTotal() != null) {
+            conditions.add("o.totalPrice <= :maxTotal");
+            parameters.put("maxTotal", search.maxTotal());
+        }
+        if (search.itemNamePrefix() != null) {
+            String range = prefixRange(search.itemNamePrefix(), parameters);
+            conditions.add("o.id in (select i.order.id from OrderItemEntity i where " + range + ")");
+        }
+
+        String key = "o." + search.sort().attribute();
+        String direction = search.descending() ? " desc" : "";
+        if (after != null) {
+            // the redundant bound on the key alone lets the index seek to the position
+            String bound = search.descending() ? "<" : ">";
+            conditions.add(key + " " + bound + "= :afterValue and (" + key + " " + bound + " :afterValue or o.id "
+                    + bound + " :afterId)");
+            parameters.put("afterValue", after.value());
+            parameters.put("afterId", after.id());
+        }
+
+        StringBuilder jpql = new StringBuilder("""
+                select new com.sample.ecommerceOrderservice.repository.OrderRow(o.id, o.status, o.createdAt, o.totalPrice, o.itemCount, o.version,
+                        coalesce(o.updatedAt, o.createdAt))
+                from OrderEntity o""");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by ");
+        if (parameters.containsKey("status") && search.sort() == OrderSearch.SortField.CREATED_AT) {
+            // constant, but lets the (status, createdAt, id) index return the rows in order
+            jpql.append("o.status").append(direction).append(", ");
+        }
+        jpql.append(key).append(direction).append(", o.id").append(direction);
+
+        TypedQuery<OrderRow> query = entityManager.createQuery(jpql.toString(), OrderRow.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit.max()).getResultList();
+    }
+
+    /**
+     * Item names starting with {@code prefix} as the range [prefix, prefix with its last
+     * char incremented): a bound LIKE pattern could not seek on idx_order_items_name, and
+     * % and _ need no escaping.
+     */
+    private static String prefixRange(String prefix, Map<String, Object> parameters) {
+        parameters.put("namePrefix", prefix);
+        char last = prefix.charAt(prefix.length() - 1);
+        if (last == Character.MAX_VALUE) {
+            return "i.name >= :namePrefix";
+        }
+        parameters.put("nameUpperBound", prefix.substring(0, prefix.length() - 1) + (char) (last + 1));
+        return "i.name >= :namePrefix and i.name < :nameUpperBound";
+    }
+}
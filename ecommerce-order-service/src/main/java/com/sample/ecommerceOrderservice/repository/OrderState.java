@@ -0,0 +1,6 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+
+/** Status, version and total of one order: what a bulk status change is checked against */
+public record OrderState(Long id, OrderStatus status, Long version, Double totalPrice) {}
@@ -0,0 +1,6 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import java.util.Date;
+
+/** What a conditional GET needs to know about an order, without loading it */
+public record OrderVersion(Long version, Date updatedAt) {}
@@ -0,0 +1,6 @@
+package com.sample.ecommerceOrderservice.repository;
+
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+
+/** Order count and summed total_price for one status */
+public record StatusTotals(OrderStatus status, Long orders, Double revenue) {}
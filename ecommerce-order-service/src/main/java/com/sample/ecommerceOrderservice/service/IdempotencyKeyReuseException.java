@@ -0,0 +1,9 @@
+package com.sample.ecommerceOrderservice.service;
+
+/** An Idempotency-Key was sent again with a different request body */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String key) {
+        super("Idempotency-Key " + key + " was already used for a different request");
+    }
+}
@@ -0,0 +1,222 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.config.Shards;
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.IdempotencyKeyEntity;
+import com.sample.ecommerceOrderservice.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for order creation.
+ *
+ * A key is looked up in a bounded in-memory LRU first, then in {@code idempotency_keys}.
+ * The first request for a key creates the order and inserts the key row in one
+ * transaction; the primary key on that row makes a second instance racing on the same
+ * key roll back its order and replay the winner's response instead. Within one instance,
+ * concurrent requests with the same key wait for the first one rather than racing.
+ * A key lives on the shard its hash picks, and the order it creates goes to that shard
+ * too, so both rows still commit in one transaction.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    /** Longest accepted Idempotency-Key value */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    /** The order for a request, and whether it was replayed from an earlier request */
+    public record Result(OrderDTO order, boolean replayed) {}
+
+    private record Stored(String requestHash, OrderDTO order, long expiresAt) {}
+
+    private final IdempotencyKeyRepository keyRepository;
+    private final ObjectMapper objectMapper;
+    private final Shards shards;
+    private final TransactionTemplate tx;
+    private final int memorySize;
+    private final long ttlMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Stored> recent = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyKeyRepository keyRepository, ObjectMapper objectMapper,
+                            Shards shards, PlatformTransactionManager transactionManager,
+                            @Value("${orders.idempotency.memory-size:10000}") int memorySize,
+                            @Value("${orders.idempotency.ttl-ms:86400000}") long ttlMillis) {
+        this.keyRepository = keyRepository;
+        this.objectMapper = objectMapper;
+        this.shards = shards;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.memorySize = memorySize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Runs {@code create} once per key and returns its order; later requests with the same
+     * key and body get that order back without touching the orders tables.
+     *
+     * @throws IdempotencyKeyReuseException if the key was used with a different body
+     */
+    public Result execute(String key, List<OrderItemDTO> items, Supplier<OrderDTO> create) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(items);
+        Stored hit = remembered(key);
+        if (hit != null) {
+            return replay(key, requestHash, hit);
+        }
+
+        int shard = Math.floorMod(key.hashCode(), shards.count());
+        CompletableFuture<Result> mine = new CompletableFuture<>();
+        CompletableFuture<Result> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            join(running); // the first request's failure is ours too
+            Stored first = remembered(key);
+            if (first == null) {
+                first = remember(key, shards.on(shard, () -> keyRepository.findLive(key, new Date()))
+                        .orElseThrow(() -> new IllegalStateException("Idempotency-Key " + key + " expired")));
+            }
+            return replay(key, requestHash, first);
+        }
+        try {
+            Result result = shards.on(shard, () -> createOnce(key, requestHash, create));
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Drops expired keys; every hour by default, see orders.idempotency.cleanup-interval-ms */
+    @Scheduled(fixedDelayString = "${orders.idempotency.cleanup-interval-ms:3600000}")
+    public int purgeExpired() {
+        int deleted = shards.onEach(() -> tx.execute(status -> keyRepository.deleteExpired(new Date()))).stream()
+                .mapToInt(count -> count == null ? 0 : count).sum();
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+        return deleted;
+    }
+
+    private Result createOnce(String key, String requestHash, Supplier<OrderDTO> create) {
+        Optional<IdempotencyKeyEntity> stored = keyRepository.findLive(key, new Date());
+        if (stored.isPresent()) {
+            return replay(key, requestHash, remember(key, stored.get()));
+        }
+        try {
+            OrderDTO order = tx.execute(status -> {
+                Date now = new Date();
+                keyRepository.deleteIfExpired(key, now);
+                OrderDTO created = create.get();
+                keyRepository.insert(key, requestHash, toJson(created), new Date(now.getTime() + ttlMillis));
+                return created;
+            });
+            remember(key, new Stored(requestHash, order, System.currentTimeMillis() + ttlMillis));
+            return new Result(order, false);
+        } catch (DataIntegrityViolationException e) {
+            // another instance committed this key first; our order was rolled back
+            IdempotencyKeyEntity winner = keyRepository.findLive(key, new Date()).orElseThrow(() -> e);
+            return replay(key, requestHash, remember(key, winner));
+        }
+    }
+
+    private static Result replay(String key, String requestHash, Stored stored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(key);
+        }
+        return new Result(stored.order(), true);
+    }
+
+    private static Result join(CompletableFuture<Result> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Stored remembered(String key) {
+        lock.lock();
+        try {
+            Stored stored = recent.get(key);
+            if (stored != null && stored.expiresAt() < System.currentTimeMillis()) {
+                recent.remove(key);
+                return null;
+            }
+            return stored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Stored remember(String key, IdempotencyKeyEntity entity) {
+        try {
+            return remember(key, new Stored(entity.getRequestHash(),
+                    objectMapper.readValue(entity.getResponse(), OrderDTO.class), entity.getExpiresAt().getTime()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response for Idempotency-Key " + key, e);
+        }
+    }
+
+    private Stored remember(String key, Stored stored) {
+        if (memorySize <= 0) {
+            return stored;
+        }
+        lock.lock();
+        try {
+            recent.put(key, stored);
+            Iterator<String> eldest = recent.keySet().iterator();
+            while (recent.size() > memorySize) {
+                eldest.next();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return stored;
+    }
+
+    private String toJson(OrderDTO order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order " + order.getId(), e);
+        }
+    }
+
+    private String hash(List<OrderItemDTO> items) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(items).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash request", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.repository.JobLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Database-backed leases used to split background work across replicas.
+ * Each claim and release commits on its own, independent of the caller's transaction.
+ */
+@Component
+public class JobLeases {
+
+    private final JobLeaseRepository leaseRepository;
+    private final TransactionTemplate tx;
+    private final String owner = UUID.randomUUID().toString();
+
+    public JobLeases(JobLeaseRepository leaseRepository, PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Identity of this instance as recorded in lease rows */
+    public String owner() {
+        return owner;
+    }
+
+    /** Claim the lease unless another live instance holds it */
+    public boolean tryAcquire(String key, long ttlMillis) {
+        Date now = new Date();
+        Date expiresAt = new Date(now.getTime() + ttlMillis);
+        Integer updated = tx.execute(status -> leaseRepository.takeOver(key, owner, expiresAt, now));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+        try {
+            tx.executeWithoutResult(status -> leaseRepository.insert(key, owner, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false; // held by someone else
+        }
+    }
+
+    public void release(String key) {
+        tx.executeWithoutResult(status -> leaseRepository.release(key, owner));
+    }
+}
@@ -0,0 +1,165 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.config.Shards;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderRepository;
+import com.sample.ecommerceOrderservice.repository.OrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Background job: moves terminal (DELIVERED, CANCELED) orders that have not changed for
+ * {@code orders.archive.min-age-ms} into {@code orders_archive} / {@code order_items_archive},
+ * so the live tables and their indexes only hold orders that can still change.
+ *
+ * Each chunk of {@code chunkSize} orders is copied and deleted in its own transaction,
+ * under a {@link JobLeases} lease so replicas never move the same rows. Chunks are
+ * separated by {@code pauseMillis} and a run stops after {@code maxChunksPerRun}, which
+ * bounds the load one run puts on the database. Terminal orders never change again,
+ * so moving them races with nothing but reads, and {@link OrderService#getOrder} falls
+ * back to the archive. Every shard archives into its own archive tables.
+ */
+@Component
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+    private static final String LEASE_KEY = "order-archive";
+    private static final Set<OrderStatus> TERMINAL = Arrays.stream(OrderStatus.values())
+            .filter(OrderStatus::isTerminal)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(OrderStatus.class)));
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository itemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedItemRepository;
+    private final JobLeases leases;
+    private final Shards shards;
+    private final TransactionTemplate tx;
+    private final long minAgeMillis;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final int maxChunksPerRun;
+    private final long leaseTtlMillis;
+
+    private final Counter ordersArchived;
+
+    public OrderArchiver(OrderRepository orderRepository, OrderItemRepository itemRepository,
+                         ArchivedOrderRepository archivedOrderRepository, ArchivedOrderItemRepository archivedItemRepository,
+                         JobLeases leases, Shards shards, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                         @Value("${orders.archive.min-age-ms:2592000000}") long minAgeMillis,
+                         @Value("${orders.archive.chunk-size:500}") int chunkSize,
+                         @Value("${orders.archive.pause-ms:200}") long pauseMillis,
+                         @Value("${orders.archive.max-chunks-per-run:200}") int maxChunksPerRun,
+                         @Value("${orders.archive.lease-ttl-ms:60000}") long leaseTtlMillis) {
+        if (chunkSize < 1 || maxChunksPerRun < 1) {
+            throw new IllegalArgumentException("orders.archive.chunk-size and max-chunks-per-run must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.itemRepository = itemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedItemRepository = archivedItemRepository;
+        this.leases = leases;
+        this.shards = shards;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.minAgeMillis = minAgeMillis;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.leaseTtlMillis = leaseTtlMillis;
+        this.ordersArchived = Counter.builder("orders.archive.rows")
+                .description("Terminal orders moved to the archive tables")
+                .register(meterRegistry);
+    }
+
+    /** Every hour by default; returns the number of orders moved */
+    @Scheduled(fixedDelayString = "${orders.archive.interval-ms:3600000}",
+            initialDelayString = "${orders.archive.interval-ms:3600000}")
+    public int archive() {
+        long started = System.currentTimeMillis();
+        Date cutoff = new Date(started - minAgeMillis);
+        int archived = 0;
+        int chunks = 0;
+        for (Run shard : shards.onEach(() -> archiveShard(cutoff))) {
+            archived += shard.archived();
+            chunks += shard.chunks();
+        }
+
+        if (archived > 0) {
+            log.info("Order archive: {} orders moved in {} chunks in {} ms",
+                    archived, chunks, System.currentTimeMillis() - started);
+        }
+        return archived;
+    }
+
+    private record Run(int archived, int chunks) {}
+
+    /** Archives the shard bound to this thread, at most {@code maxChunksPerRun} chunks */
+    private Run archiveShard(Date cutoff) {
+        int archived = 0;
+        int chunks = 0;
+        long afterId = 0;
+
+        while (chunks < maxChunksPerRun) {
+            if (chunks > 0 && !pause()) {
+                break;
+            }
+            if (!leases.tryAcquire(LEASE_KEY, leaseTtlMillis)) {
+                break; // another instance is archiving; it will get to these rows
+            }
+            List<Long> moved;
+            try {
+                long from = afterId;
+                moved = tx.execute(status -> moveChunk(from, cutoff));
+            } finally {
+                leases.release(LEASE_KEY);
+            }
+            if (moved == null || moved.isEmpty()) {
+                break;
+            }
+            archived += moved.size();
+            chunks++;
+            ordersArchived.increment(moved.size());
+            afterId = moved.get(moved.size() - 1);
+        }
+        return new Run(archived, chunks);
+    }
+
+    private List<Long> moveChunk(long afterId, Date cutoff) {
+        List<Long> ids = orderRepository.findIdsUnchangedSince(TERMINAL, afterId, cutoff, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        archivedOrderRepository.copyFromOrders(ids);
+        archivedItemRepository.copyFromOrderItems(ids);
+        itemRepository.deleteByOrderIds(ids);
+        orderRepository.deleteByIds(ids);
+        return ids;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache for single-order lookups, with LRU and TTL eviction.
+ *
+ * Entries are split by id over up to 64 segments, each an access-ordered map behind its own
+ * lock, so hits on different orders do not queue on one lock. LRU order is kept per segment:
+ * a full segment evicts its own least recently used entry, which is only approximately the
+ * cache's. Caches too small for segments of at least 64 entries keep a single, exact one.
+ *
+ * Writers invalidate after their transaction commits. To stop a reader that loaded
+ * the old row just before that commit from re-populating the cache afterwards, every
+ * invalidation bumps a stamp for the key's stripe and a load is only stored if the
+ * stamp it saw before hitting the database is still current.
+ *
+ * With read replicas, a load right after that commit can still see the old row. A non-zero
+ * settle time ({@code orders.cache.settle-ms}, at least the replica lag) keeps loads of a stripe
+ * out of the cache for that long after its last invalidation.
+ */
+@Component
+public class OrderCache implements MeterBinder {
+
+    private static final int STRIPES = 64;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final long ttlNanos;
+    private final long settleNanos;
+    /** A power of two dividing {@link #STRIPES}, so each stripe lives in exactly one segment */
+    private final Segment[] segments;
+    /** Guarded by the lock of the stripe's segment */
+    private final long[] stamps = new long[STRIPES];
+    private final long[] invalidatedAt = new long[STRIPES];
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private record Entry(OrderDTO value, long expiresAt) {}
+
+    private static final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        final int maxSize;
+
+        Segment(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /** Counters since startup plus the current entry count */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {}
+
+    /** Without a settle time, for a single database */
+    public OrderCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, 0);
+    }
+
+    @Autowired
+    public OrderCache(@Value("${orders.cache.max-size:10000}") int maxSize,
+                      @Value("${orders.cache.ttl-ms:30000}") long ttlMillis,
+                      @Value("${orders.cache.settle-ms:0}") long settleMillis) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.settleNanos = settleMillis * 1_000_000L;
+        Arrays.fill(invalidatedAt, System.nanoTime() - settleNanos);
+        int count = 1;
+        while (count < STRIPES && maxSize / (count * 2) >= MIN_SEGMENT_SIZE) {
+            count *= 2;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(maxSize / count + (i < maxSize % count ? 1 : 0));
+        }
+    }
+
+    /** Live cached value for {@code id}, without loading or touching the hit/miss counters */
+    public Optional<OrderDTO> peek(Long id) {
+        Segment segment = segment(id);
+        segment.lock.lock();
+        try {
+            Entry entry = segment.entries.get(id);
+            return entry != null && entry.expiresAt() - System.nanoTime() > 0
+                    ? Optional.of(entry.value())
+                    : Optional.empty();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /** Cached value for {@code id}, or the loader's result; absent results are not cached */
+    public Optional<OrderDTO> get(Long id, Supplier<Optional<OrderDTO>> loader) {
+        Segment segment = segment(id);
+        long stamp;
+        segment.lock.lock();
+        try {
+            Entry entry = segment.entries.get(id);
+            if (entry != null) {
+                if (entry.expiresAt() - System.nanoTime() > 0) {
+                    hits.incrementAndGet();
+                    return Optional.of(entry.value());
+                }
+                segment.entries.remove(id);
+                expirations.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            stamp = stamps[stripe(id)];
+        } finally {
+            segment.lock.unlock();
+        }
+
+        Optional<OrderDTO> loaded = loader.get();
+        if (loaded.isPresent() && segment.maxSize > 0) {
+            segment.lock.lock();
+            try {
+                long now = System.nanoTime();
+                if (stamps[stripe(id)] == stamp && now - invalidatedAt[stripe(id)] >= settleNanos) {
+                    segment.entries.put(id, new Entry(loaded.get(), now + ttlNanos));
+                    evictOverflow(segment);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    /** Drop {@code ids} now and again once the current transaction commits */
+    public void invalidateAfterCommit(Collection<Long> ids) {
+        invalidate(ids);
+        AfterCommit.run(() -> invalidate(ids));
+    }
+
+    /** Same as {@link #invalidateAfterCommit(Collection)} for every id in [fromId, toId) */
+    public void invalidateRangeAfterCommit(long fromId, long toId) {
+        invalidateRange(fromId, toId);
+        AfterCommit.run(() -> invalidateRange(fromId, toId));
+    }
+
+    public Stats stats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), expirations.get(), size);
+    }
+
+    /** Publishes the counters under Micrometer's usual cache meter names, tagged {@code cache=orders} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", "orders", "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", "orders", "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tags("cache", "orders").register(registry);
+        FunctionCounter.builder("cache.expirations", expirations, AtomicLong::get)
+                .tags("cache", "orders").register(registry);
+        Gauge.builder("cache.size", this, cache -> cache.stats().size())
+                .tags("cache", "orders").register(registry);
+    }
+
+    private void invalidate(Collection<Long> ids) {
+        long now = System.nanoTime();
+        for (Long id : ids) {
+            Segment segment = segment(id);
+            segment.lock.lock();
+            try {
+                stamps[stripe(id)]++;
+                invalidatedAt[stripe(id)] = now;
+                segment.entries.remove(id);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    private void invalidateRange(long fromId, long toId) {
+        long now = System.nanoTime();
+        for (int s = 0; s < segments.length; s++) {
+            Segment segment = segments[s];
+            segment.lock.lock();
+            try {
+                for (int i = s; i < STRIPES; i += segments.length) {
+                    stamps[i]++;
+                    invalidatedAt[i] = now;
+                }
+                segment.entries.keySet().removeIf(id -> id >= fromId && id < toId);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    private void evictOverflow(Segment segment) {
+        Iterator<Long> eldest = segment.entries.keySet().iterator();
+        while (segment.entries.size() > segment.maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private Segment segment(Long id) {
+        return segments[(int) (id & (segments.length - 1))];
+    }
+
+    private static int stripe(Long id) {
+        return (int) (id & (STRIPES - 1));
+    }
+}
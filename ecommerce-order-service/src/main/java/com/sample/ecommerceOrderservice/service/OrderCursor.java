@@ -0,0 +1,29 @@
+package com.sample.ecommerceOrderservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in the {@code (createdAt, id)} ordering used by keyset pagination.
+ * Encoded for clients as an opaque URL-safe token.
+ */
+public record OrderCursor(Date createdAt, Long id) {
+
+    public String encode() {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException if the token was not produced by {@link #encode()} */
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new OrderCursor(new Date(Long.parseLong(raw.substring(0, sep))),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
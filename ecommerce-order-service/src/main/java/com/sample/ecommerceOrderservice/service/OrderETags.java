@@ -0,0 +1,32 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.repository.OrderRow;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Entity tags for order responses. Items never change after creation and every status
+ * change bumps the version, so (id, version) pins down an order. The tags are weak: the
+ * same order may go out as JSON, CBOR or Smile, gzipped or not, and Tomcat will not
+ * compress a response carrying a strong tag.
+ */
+public final class OrderETags {
+
+    private OrderETags() {}
+
+    public static String forOrder(Long id, Long version) {
+        return "W/\"" + id + "-" + version + "\"";
+    }
+
+    /** Covers which orders are on the page, their versions, the page shape and the cursor */
+    public static String forPage(List<OrderRow> rows, boolean includeItems, String nextCursor) {
+        StringBuilder key = new StringBuilder(rows.size() * 16 + 32)
+                .append(includeItems).append('|').append(nextCursor);
+        for (OrderRow row : rows) {
+            key.append('|').append(row.id()).append(':').append(row.version());
+        }
+        return "W/\"p" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,254 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.dto.OrderEventDTO;
+import com.sample.ecommerceOrderservice.entity.OrderEventEntity;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.OrderEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes the {@code order_events} outbox to SSE subscribers of GET /api/orders/events.
+ *
+ * Each poll first sequences newly committed rows: one UPDATE numbers them above every
+ * existing seq, so seq order is the order in which rows became visible even when
+ * transactions commit out of id order. A unique constraint on seq makes a replica that
+ * races on the same rows fail and retry on its next poll. Every replica then reads the
+ * rows after the last seq it delivered and fans them out to its own subscribers, so a
+ * client can connect to any instance.
+ *
+ * A subscriber that reconnects with Last-Event-ID first gets the events it missed from
+ * the table, then live ones, without gaps or repeats.
+ */
+@Component
+public class OrderEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventDispatcher.class);
+
+    private final OrderEventRepository eventRepository;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int replayLimit;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final long retentionMillis;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    /** Highest seq delivered to local subscribers */
+    private volatile long position;
+    private long lastHeartbeat = System.nanoTime();
+
+    public OrderEventDispatcher(OrderEventRepository eventRepository, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${orders.events.batch-size:500}") int batchSize,
+                                @Value("${orders.events.replay-limit:1000}") int replayLimit,
+                                @Value("${orders.events.timeout-ms:1800000}") long timeoutMillis,
+                                @Value("${orders.events.heartbeat-ms:15000}") long heartbeatMillis,
+                                @Value("${orders.events.retention-ms:86400000}") long retentionMillis) {
+        if (batchSize < 1 || replayLimit < 1) {
+            throw new IllegalArgumentException("orders.events.batch-size and replay-limit must be positive");
+        }
+        this.eventRepository = eventRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.replayLimit = replayLimit;
+        this.timeoutMillis = timeoutMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.retentionMillis = retentionMillis;
+        Gauge.builder("orders.events.subscribers", subscriptions, List::size)
+                .description("Open GET /api/orders/events streams on this instance")
+                .register(meterRegistry);
+    }
+
+    /** New subscribers without Last-Event-ID start with events after this point */
+    @PostConstruct
+    void start() {
+        Long max = eventRepository.findMaxSeq();
+        position = max == null ? 0 : max;
+    }
+
+    /**
+     * Opens a stream of status changes, optionally only for one order and/or one target
+     * status. With {@code lastEventId}, events after it are replayed first; if more than
+     * orders.events.replay-limit are missing, the stream ends after that many and the
+     * client's automatic reconnect fetches the next batch.
+     */
+    public SseEmitter subscribe(Long orderId, OrderStatus status, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(emitter, orderId, status,
+                lastEventId != null ? lastEventId : position);
+        subscription.lock.lock();
+        try {
+            subscriptions.add(subscription);
+            emitter.onCompletion(() -> subscriptions.remove(subscription));
+            emitter.onTimeout(() -> subscriptions.remove(subscription));
+            emitter.onError(e -> subscriptions.remove(subscription));
+            emitter.send(SseEmitter.event().reconnectTime(1000).comment("subscribed"));
+            if (lastEventId != null) {
+                List<OrderEventEntity> missed = eventRepository.findForReplay(lastEventId, orderId, status,
+                        Limit.of(replayLimit));
+                subscription.deliver(missed);
+                if (missed.size() == replayLimit) {
+                    emitter.complete();
+                }
+            }
+        } catch (Exception e) {
+            subscription.close(e);
+        } finally {
+            subscription.lock.unlock();
+        }
+        return emitter;
+    }
+
+    /** Sequences new outbox rows and delivers everything after {@link #position}; returns the events read */
+    @Scheduled(fixedDelayString = "${orders.events.poll-interval-ms:250}")
+    public int dispatch() {
+        dispatchLock.lock();
+        try {
+            while (sequence() >= batchSize) {
+                // keep going until the backlog is numbered
+            }
+            int read = 0;
+            List<OrderEventEntity> events;
+            do {
+                events = eventRepository.findSequencedAfter(position, Limit.of(batchSize));
+                if (events.isEmpty()) {
+                    break;
+                }
+                for (Subscription subscription : subscriptions) {
+                    subscription.lock.lock();
+                    try {
+                        subscription.deliver(events);
+                    } finally {
+                        subscription.lock.unlock();
+                    }
+                }
+                position = events.get(events.size() - 1).getSeq();
+                read += events.size();
+            } while (events.size() == batchSize);
+            heartbeatIfDue();
+            return read;
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private int sequence() {
+        try {
+            Integer sequenced = tx.execute(status -> {
+                List<Long> ids = eventRepository.findUnsequencedIds(Limit.of(batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                Long max = eventRepository.findMaxSeq();
+                long offset = (max == null ? 0 : max) + 1 - ids.get(0);
+                return eventRepository.assignSeq(ids.get(0), ids.get(ids.size() - 1), offset);
+            });
+            return sequenced == null ? 0 : sequenced;
+        } catch (DataAccessException e) {
+            // another instance numbered the same rows; they are delivered from its seqs
+            log.debug("Order event sequencing lost a race, retrying on the next poll: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /** Comment lines keep idle connections open through proxies and reveal closed clients */
+    private void heartbeatIfDue() {
+        if (System.nanoTime() - lastHeartbeat < heartbeatMillis * 1_000_000) {
+            return;
+        }
+        lastHeartbeat = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            subscription.lock.lock();
+            try {
+                subscription.emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (Exception e) {
+                subscription.close(e);
+            } finally {
+                subscription.lock.unlock();
+            }
+        }
+    }
+
+    /** Drops sequenced events older than orders.events.retention-ms; older Last-Event-IDs resume from there */
+    @Scheduled(fixedDelayString = "${orders.events.purge-interval-ms:3600000}")
+    public int purgeDelivered() {
+        Integer purged = tx.execute(status ->
+                eventRepository.deleteSequencedBefore(new Date(System.currentTimeMillis() - retentionMillis)));
+        return purged == null ? 0 : purged;
+    }
+
+    /**
+     * Ends open streams as soon as shutdown starts: graceful shutdown would otherwise wait
+     * for them as in-flight requests. Clients reconnect elsewhere with Last-Event-ID.
+     */
+    @EventListener(ContextClosedEvent.class)
+    void stop() {
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter.complete();
+        }
+        subscriptions.clear();
+    }
+
+    private final class Subscription {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final SseEmitter emitter;
+        final Long orderId;
+        final OrderStatus status;
+        /** Highest seq this subscriber has been offered, matching or not; guarded by lock */
+        long lastSeq;
+
+        Subscription(SseEmitter emitter, Long orderId, OrderStatus status, long lastSeq) {
+            this.emitter = emitter;
+            this.orderId = orderId;
+            this.status = status;
+            this.lastSeq = lastSeq;
+        }
+
+        void deliver(List<OrderEventEntity> events) {
+            try {
+                for (OrderEventEntity event : events) {
+                    if (event.getSeq() <= lastSeq) {
+                        continue;
+                    }
+                    lastSeq = event.getSeq();
+                    if ((orderId == null || orderId.equals(event.getOrderId()))
+                            && (status == null || status == event.getToStatus())) {
+                        OrderEventDTO dto = OrderMapper.toEventDTO(event);
+                        emitter.send(SseEmitter.event().id(String.valueOf(dto.getId())).name("status")
+                                .data(dto, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (Exception e) {
+                close(e);
+            }
+        }
+
+        void close(Exception cause) {
+            subscriptions.remove(this);
+            log.debug("Closing order event stream: {}", cause.toString());
+            emitter.completeWithError(cause);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sample.ecommerceOrderservice.config.Shards;
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.OrderRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Streams every matching order with its items to an output stream while reading them, so
+ * memory use is bounded by the fetch size and the largest single order, not the export.
+ *
+ * Orders and items come from one query, a left join of the live tables and one of the
+ * archive tables (see {@link OrderArchiver}) under UNION ALL, ordered by (createdAt, id), read
+ * forward-only {@code orders.export.fetch-size} rows at a time inside a read-only
+ * transaction (which PostgreSQL needs to use a cursor, and which sends the read to a
+ * replica when there are any). An order is written as soon as the row of the next one
+ * arrives. With several {@link Shards}, the shards are exported one after another.
+ */
+@Component
+public class OrderExporter {
+
+    public enum Format {
+        /** One JSON order per line, shaped like GET /api/orders/{id} */
+        NDJSON,
+        /** Header line, then one line per item; an order without items gets one line with empty item columns */
+        CSV;
+
+        public static Format fromParameter(String format) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("format must be ndjson or csv");
+            }
+        }
+    }
+
+    /** Any of {@code statuses} (all if empty), createdAt in [createdFrom, createdTo); null bounds are open */
+    public record Filter(Set<OrderStatus> statuses, Date createdFrom, Date createdTo) {}
+
+    private static final String SELECT = """
+            select o.id, o.status, o.created_at, coalesce(o.updated_at, o.created_at) as updated_at, o.total_price,
+                   o.item_count, o.version, i.name, i.quantity, i.price
+            """;
+
+    private static final String CSV_HEADER =
+            "order_id,status,created_at,updated_at,total_price,item_count,version,item_name,quantity,price\n";
+
+    private final JdbcTemplate cursor;
+    private final ObjectWriter json;
+    private final Shards shards;
+    private final TransactionTemplate readOnlyTx;
+
+    public OrderExporter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, Shards shards,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${orders.export.fetch-size:500}") int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("orders.export.fetch-size must be positive");
+        }
+        this.cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursor.setFetchSize(fetchSize);
+        this.json = objectMapper.writerFor(OrderDTO.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.shards = shards;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /** Writes the export to {@code out}, flushing it at the end; returns the number of orders written */
+    public long export(Filter filter, Format format, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 8192);
+        if (format == Format.CSV) {
+            buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        List<Object> args = new ArrayList<>();
+        String sql = query(filter, args);
+        long orders = 0;
+        try {
+            for (int shard = 0; shard < shards.count(); shard++) {
+                orders += shards.on(shard, () -> readOnlyTx.execute(status -> {
+                    OrderWriter writer = new OrderWriter(format, buffered);
+                    cursor.query(sql, writer::row, args.toArray());
+                    return writer.finish();
+                }));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+        return orders;
+    }
+
+    private static String query(Filter filter, List<Object> args) {
+        StringBuilder where = new StringBuilder(" where 1 = 1");
+        List<Object> whereArgs = new ArrayList<>();
+        if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+            where.append(" and o.status in (").append(String.join(", ", Collections.nCopies(filter.statuses().size(), "?")))
+                    .append(')');
+            filter.statuses().forEach(status -> whereArgs.add(status.name()));
+        }
+        if (filter.createdFrom() != null) {
+            where.append(" and o.created_at >= ?");
+            whereArgs.add(new Timestamp(filter.createdFrom().getTime()));
+        }
+        if (filter.createdTo() != null) {
+            where.append(" and o.created_at < ?");
+            whereArgs.add(new Timestamp(filter.createdTo().getTime()));
+        }
+        // an order is in exactly one of the two tables, so its items still arrive together;
+        // their order within it is left to the database
+        args.addAll(whereArgs);
+        args.addAll(whereArgs);
+        return SELECT + "from orders o left join order_items i on i.order_id = o.id" + where
+                + " union all "
+                + SELECT + "from orders_archive o left join order_items_archive i on i.order_id = o.id" + where
+                + " order by created_at, id";
+    }
+
+    /** Collects the rows of the current order and writes it once the next order starts */
+    private final class OrderWriter {
+
+        private final Format format;
+        private final OutputStream out;
+        private OrderRow order;
+        private final List<OrderItemDTO> items = new ArrayList<>();
+        private long written;
+
+        OrderWriter(Format format, OutputStream out) {
+            this.format = format;
+            this.out = out;
+        }
+
+        void row(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (order == null || order.id() != id) {
+                writeOrder();
+                order = new OrderRow(id, OrderStatus.valueOf(rs.getString("status")), date(rs, "created_at"),
+                        rs.getDouble("total_price"), rs.getInt("item_count"), rs.getLong("version"),
+                        date(rs, "updated_at"));
+            }
+            String name = rs.getString("name");
+            int quantity = rs.getInt("quantity");
+            if (!rs.wasNull()) {
+                items.add(new OrderItemDTO(name, quantity, rs.getDouble("price")));
+            }
+        }
+
+        long finish() {
+            writeOrder();
+            return written;
+        }
+
+        private void writeOrder() {
+            if (order == null) {
+                return;
+            }
+            try {
+                if (format == Format.NDJSON) {
+                    json.writeValue(out, OrderMapper.toDTO(order, items));
+                    out.write('\n');
+                } else {
+                    writeCsv();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written++;
+            order = null;
+            items.clear();
+        }
+
+        private void writeCsv() throws IOException {
+            String header = String.join(",", order.id().toString(), order.status().name(),
+                    iso(order.createdAt()), iso(order.updatedAt()),
+                    Double.toString(order.totalPrice()), Integer.toString(order.itemCount()),
+                    order.version().toString());
+            if (items.isEmpty()) {
+                out.write((header + ",,,\n").getBytes(StandardCharsets.UTF_8));
+            }
+            for (OrderItemDTO item : items) {
+                out.write((header + ',' + csv(item.getName()) + ',' + item.getQuantity() + ',' + item.getPrice() + '\n')
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static Date date(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : new Date(timestamp.getTime());
+    }
+
+    private static String iso(Date date) {
+        return date == null ? "" : date.toInstant().toString();
+    }
+
+    /** RFC 4180 field: quoted when it holds a separator, quote or line break */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
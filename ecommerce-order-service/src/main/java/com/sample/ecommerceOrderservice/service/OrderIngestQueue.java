@@ -0,0 +1,282 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.config.WorkerThreads;
+import com.sample.ecommerceOrderservice.dto.IngestStatus;
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Write-behind ingestion for POST /api/orders, enabled with {@code orders.ingest.async=true}.
+ *
+ * Requests are validated, given an order id from the orders sequence and put on a
+ * bounded queue; a single writer thread takes up to {@code batch-size} orders, or
+ * whatever arrived within {@code max-wait-ms} of the first one, and commits them with
+ * two batched INSERTs in one transaction. When the queue is full new orders are
+ * refused rather than buffered without limit.
+ *
+ * Until its batch commits an order exists only in memory: it is lost if the process
+ * dies and is not visible to reads or status changes. Callers that need the order on
+ * disk wait for {@link Accepted#written()}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.ingest", name = "async", havingValue = "true")
+public class OrderIngestQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestQueue.class);
+
+    /** Must match blockSize of the @ShardedSequence ids of OrderEntity and OrderItemEntity */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_ORDER =
+            "insert into orders (id, status, version, created_at, updated_at, total_price, item_count)"
+                    + " values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM =
+            "insert into order_items (id, name, quantity, price, order_id) values (?, ?, ?, ?, ?)";
+
+    /** An order handed to the queue; {@code written} completes when its batch commits */
+    public record Accepted(OrderDTO order, CompletableFuture<OrderDTO> written) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final OrderStats orderStats;
+    private final TransactionTemplate tx;
+    private final SequenceBlockAllocator orderIds;
+    private final SequenceBlockAllocator itemIds;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final long durableTimeoutMillis;
+
+    private final BlockingQueue<Accepted> queue;
+    private final Map<Long, Accepted> queued = new ConcurrentHashMap<>();
+    private final Map<Long, String> failed;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter writtenCount;
+    private final Counter failedCount;
+    private final Counter refusedCount;
+    private final DistributionSummary batchSizes;
+
+    public OrderIngestQueue(JdbcTemplate jdbcTemplate, OrderRepository orderRepository, OrderStats orderStats,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            WorkerThreads workerThreads,
+                            @Value("${orders.ingest.queue-capacity:10000}") int capacity,
+                            @Value("${orders.ingest.batch-size:500}") int batchSize,
+                            @Value("${orders.ingest.max-wait-ms:10}") long maxWaitMillis,
+                            @Value("${orders.ingest.durable-timeout-ms:5000}") long durableTimeoutMillis) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("orders.ingest.queue-capacity and batch-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderRepository = orderRepository;
+        this.orderStats = orderStats;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.orderIds = new SequenceBlockAllocator(jdbcTemplate, "orders_seq", ID_BLOCK_SIZE);
+        this.itemIds = new SequenceBlockAllocator(jdbcTemplate, "order_items_seq", ID_BLOCK_SIZE);
+        this.batchSize = batchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.durableTimeoutMillis = durableTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        // remember recent failures only, so status lookups can report them
+        this.failed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > capacity;
+            }
+        });
+        this.writer = workerThreads.named("order-ingest-writer-").newThread(this::runWriter);
+
+        Gauge.builder("orders.ingest.queue.size", queue, Collection::size).register(meterRegistry);
+        this.writtenCount = meterRegistry.counter("orders.ingest.orders", "result", "written");
+        this.failedCount = meterRegistry.counter("orders.ingest.orders", "result", "failed");
+        this.refusedCount = meterRegistry.counter("orders.ingest.orders", "result", "refused");
+        this.batchSizes = DistributionSummary.builder("orders.ingest.batch.size")
+                .description("Orders committed per writer transaction")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Queues a new order. Invalid orders are rejected with {@link IllegalArgumentException};
+     * empty means the queue is full (or shutting down) and the caller should retry later.
+     */
+    public Optional<Accepted> offer(List<OrderItemDTO> items) {
+        OrderService.validate(items).ifPresent(problem -> {
+            throw new IllegalArgumentException(problem);
+        });
+        if (!running) {
+            refusedCount.increment();
+            return Optional.empty();
+        }
+        double total = items.stream().mapToDouble(i -> i.getQuantity() * i.getPrice()).sum();
+        Date now = new Date();
+        OrderDTO order = new OrderDTO(orderIds.next(), OrderStatus.PENDING, now, List.copyOf(items), total,
+                items.size(), 0L, now);
+        Accepted accepted = new Accepted(order, new CompletableFuture<>());
+
+        queued.put(order.getId(), accepted);
+        if (!queue.offer(accepted)) {
+            queued.remove(order.getId());
+            refusedCount.increment();
+            return Optional.empty();
+        }
+        return Optional.of(accepted);
+    }
+
+    /**
+     * Waits up to {@code durable-timeout-ms} for the order's batch to commit; empty if it
+     * is still queued by then. Throws {@link IllegalStateException} if the write failed.
+     */
+    public Optional<OrderDTO> awaitWritten(Accepted accepted) throws InterruptedException {
+        try {
+            return Optional.of(accepted.written().get(durableTimeoutMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Order could not be stored", e.getCause());
+        }
+    }
+
+    /** Status of an order accepted here; empty if this id was never queued or has been forgotten */
+    public Optional<IngestStatus> status(Long id) {
+        if (queued.containsKey(id)) {
+            return Optional.of(new IngestStatus(id, IngestStatus.State.QUEUED, null));
+        }
+        String error = failed.get(id);
+        if (error != null) {
+            return Optional.of(new IngestStatus(id, IngestStatus.State.FAILED, error));
+        }
+        return orderRepository.existsById(id)
+                ? Optional.of(new IngestStatus(id, IngestStatus.State.WRITTEN, null))
+                : Optional.empty();
+    }
+
+    /** Stops accepting orders and lets the writer commit everything already queued */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (writer.isAlive()) {
+            log.warn("Order ingest writer still running at shutdown; {} queued orders may be lost", queue.size());
+            return;
+        }
+        // offers that raced with shutdown; fail them so no caller waits forever
+        for (Accepted left; (left = queue.poll()) != null; ) {
+            fail(left, new IllegalStateException("Service is shutting down"));
+        }
+    }
+
+    private void runWriter() {
+        List<Accepted> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Accepted first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || left <= 0) {
+                        break;
+                    }
+                    Accepted next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order ingest writer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** One transaction for the batch; if that fails, each order is retried alone to isolate the bad one */
+    private void write(List<Accepted> batch) {
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            log.warn("Ingest batch of {} orders failed, retrying one by one", batch.size(), e);
+            for (Accepted accepted : batch) {
+                try {
+                    insert(List.of(accepted));
+                } catch (RuntimeException single) {
+                    fail(accepted, single);
+                }
+            }
+        }
+    }
+
+    private void insert(List<Accepted> batch) {
+        List<Object[]> orders = new ArrayList<>(batch.size());
+        List<Object[]> items = new ArrayList<>();
+        for (Accepted accepted : batch) {
+            OrderDTO order = accepted.order();
+            Timestamp createdAt = new Timestamp(order.getCreatedAt().getTime());
+            orders.add(new Object[]{order.getId(), order.getStatus().name(), order.getVersion(),
+                    createdAt, createdAt, order.getTotalPrice(), order.getItemCount()});
+            for (OrderItemDTO item : order.getItems()) {
+                items.add(new Object[]{itemIds.next(), item.getName(), item.getQuantity(), item.getPrice(), order.getId()});
+            }
+        }
+        tx.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ORDER, orders);
+            jdbcTemplate.batchUpdate(INSERT_ITEM, items);
+            orderStats.recordCreatedAfterCommit(batch.size(),
+                    batch.stream().mapToDouble(a -> a.order().getTotalPrice()).sum());
+        });
+
+        batchSizes.record(batch.size());
+        writtenCount.increment(batch.size());
+        for (Accepted accepted : batch) {
+            queued.remove(accepted.order().getId());
+            accepted.written().complete(accepted.order());
+        }
+    }
+
+    private void fail(Accepted accepted, RuntimeException e) {
+        Long id = accepted.order().getId();
+        failed.put(id, "Order could not be stored: " + e.getMessage());
+        queued.remove(id);
+        failedCount.increment();
+        accepted.written().completeExceptionally(e);
+        log.error("Dropping queued order {}", id, e);
+    }
+}
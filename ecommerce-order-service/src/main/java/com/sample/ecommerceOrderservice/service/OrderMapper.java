@@ -0,0 +1,61 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import com.sample.ecommerceOrderservice.dto.OrderEventDTO;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.OrderEntity;
+import com.sample.ecommerceOrderservice.entity.OrderEventEntity;
+import com.sample.ecommerceOrderservice.repository.OrderItemRow;
+import com.sample.ecommerceOrderservice.repository.OrderRow;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/** Entity and projection to DTO conversion */
+public final class OrderMapper {
+
+    private OrderMapper() {}
+
+    public static OrderDTO toDTO(OrderEntity entity) {
+        List<OrderItemDTO> itemDTOs = entity.getItems().stream()
+                .map(i -> new OrderItemDTO(i.getName(), i.getQuantity(), i.getPrice()))
+                .collect(Collectors.toList());
+        return new OrderDTO(entity.getId(), entity.getStatus(), entity.getCreatedAt(), itemDTOs,
+                entity.getTotalPrice(), entity.getItemCount(), entity.getVersion(), entity.getUpdatedAt());
+    }
+
+    /** Join header rows with their item rows, preserving the order of {@code orders} */
+    public static List<OrderDTO> toDTOs(List<OrderRow> orders, List<OrderItemRow> items) {
+        Map<Long, List<OrderItemDTO>> itemsByOrder = new HashMap<>(orders.size() * 2);
+        for (OrderItemRow item : items) {
+            itemsByOrder.computeIfAbsent(item.orderId(), id -> new ArrayList<>())
+                    .add(new OrderItemDTO(item.name(), item.quantity(), item.price()));
+        }
+        List<OrderDTO> result = new ArrayList<>(orders.size());
+        for (OrderRow order : orders) {
+            result.add(toDTO(order, itemsByOrder.getOrDefault(order.id(), new ArrayList<>())));
+        }
+        return result;
+    }
+
+    /** {@code items} may be null for summary views */
+    public static OrderDTO toDTO(OrderRow order, List<OrderItemDTO> items) {
+        return new OrderDTO(order.id(), order.status(), order.createdAt(), items, order.totalPrice(), order.itemCount(),
+                order.version(), order.updatedAt());
+    }
+
+    /** Header-only DTOs; no item query needed */
+    public static List<OrderDTO> toSummaryDTOs(List<OrderRow> orders) {
+        List<OrderDTO> result = new ArrayList<>(orders.size());
+        for (OrderRow order : orders) {
+            result.add(toDTO(order, null));
+        }
+        return result;
+    }
+
+    /** Sequenced outbox rows only; the seq becomes the event id */
+    public static OrderEventDTO toEventDTO(OrderEventEntity event) {
+        return new OrderEventDTO(event.getSeq(), event.getOrderId(), event.getFromStatus(), event.getToStatus(),
+                event.getOccurredAt());
+    }
+}
@@ -0,0 +1,144 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.config.Shards;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.OrderEventRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Background job: promotes PENDING orders to PROCESSING.
+ *
+ * Work is split into fixed id ranges of {@code chunkSize}. Each range is claimed
+ * through a {@link JobLeases} lease, promoted with one bulk UPDATE and committed
+ * on its own, so several replicas can run the job at once without touching the
+ * same rows and no run ever holds one huge transaction. Each promoted order gets its
+ * {@code order_events} row from one INSERT ... SELECT in the chunk's transaction.
+ * With several shards each one is walked on its own, in parallel; ranges never span
+ * shards since the shard is in the id's top bits.
+ */
+@Component
+public class OrderPromotionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPromotionJob.class);
+    private static final String LEASE_PREFIX = "order-promotion:";
+
+    private final OrderRepository orderRepository;
+    private final OrderEventRepository eventRepository;
+    private final JobLeases leases;
+    private final OrderCache orderCache;
+    private final OrderStats orderStats;
+    private final Shards shards;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final long leaseTtlMillis;
+
+    private final Timer runTimer;
+    private final Counter rowsPromoted;
+    private final Counter chunksProcessed;
+    private final Counter chunksSkipped;
+
+    public OrderPromotionJob(OrderRepository orderRepository, OrderEventRepository eventRepository, JobLeases leases, OrderCache orderCache,
+                             OrderStats orderStats, Shards shards, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${orders.promotion.chunk-size:500}") int chunkSize,
+                             @Value("${orders.promotion.lease-ttl-ms:60000}") long leaseTtlMillis) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("orders.promotion.chunk-size must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.eventRepository = eventRepository;
+        this.leases = leases;
+        this.orderCache = orderCache;
+        this.orderStats = orderStats;
+        this.shards = shards;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.leaseTtlMillis = leaseTtlMillis;
+
+        this.runTimer = Timer.builder("orders.promotion.duration")
+                .description("Duration of one pending order promotion run")
+                .register(meterRegistry);
+        this.rowsPromoted = Counter.builder("orders.promotion.rows")
+                .description("Orders moved from PENDING to PROCESSING")
+                .register(meterRegistry);
+        this.chunksProcessed = meterRegistry.counter("orders.promotion.chunks", "result", "processed");
+        this.chunksSkipped = meterRegistry.counter("orders.promotion.chunks", "result", "skipped");
+    }
+
+    /** Every 5 minutes by default; see orders.promotion.interval-ms */
+    @Scheduled(fixedRateString = "${orders.promotion.interval-ms:300000}")
+    public PromotionReport autoUpdatePendingOrders() {
+        long started = System.nanoTime();
+        int promoted = 0;
+        int processed = 0;
+        int skipped = 0;
+        for (PromotionReport shard : shards.onEach(this::promoteShard)) {
+            promoted += shard.rowsPromoted();
+            processed += shard.chunksProcessed();
+            skipped += shard.chunksSkipped();
+        }
+
+        PromotionReport report = new PromotionReport(promoted, processed, skipped,
+                Duration.ofNanos(System.nanoTime() - started));
+        runTimer.record(report.duration());
+        log.info("Pending order promotion: {} rows promoted in {} chunks ({} skipped) in {} ms",
+                report.rowsPromoted(), report.chunksProcessed(), report.chunksSkipped(), report.duration().toMillis());
+        return report;
+    }
+
+    /** Promotes the pending orders of the shard bound to this thread */
+    private PromotionReport promoteShard() {
+        int promoted = 0;
+        int processed = 0;
+        int skipped = 0;
+
+        long fromId = 0;
+        Long next;
+        while ((next = orderRepository.findFirstIdByStatusFrom(OrderStatus.PENDING, fromId)) != null) {
+            long lo = Math.floorDiv(next, chunkSize) * (long) chunkSize;
+            long hi = lo + chunkSize;
+            String key = LEASE_PREFIX + (lo / chunkSize);
+
+            if (leases.tryAcquire(key, leaseTtlMillis)) {
+                try {
+                    Integer rows = tx.execute(status -> {
+                        // lock the chunk's rows first so the revenue moved matches the rows updated
+                        double revenue = orderRepository.lockTotalsInRange(OrderStatus.PENDING, lo, hi).stream()
+                                .mapToDouble(Double::doubleValue).sum();
+                        eventRepository.insertRangeTransitions(OrderStatus.PENDING, OrderStatus.PROCESSING, lo, hi);
+                        int updated = orderRepository.transitionRange(OrderStatus.PENDING, OrderStatus.PROCESSING, lo, hi);
+                        if (updated > 0) {
+                            orderCache.invalidateRangeAfterCommit(lo, hi);
+                            orderStats.recordTransitionAfterCommit(OrderStatus.PENDING, OrderStatus.PROCESSING,
+                                    updated, revenue);
+                        }
+                        return updated;
+                    });
+                    int count = rows == null ? 0 : rows;
+                    promoted += count;
+                    processed++;
+                    rowsPromoted.increment(count);
+                    chunksProcessed.increment();
+                } finally {
+                    leases.release(key);
+                }
+            } else {
+                skipped++; // another instance owns this range right now
+                chunksSkipped.increment();
+            }
+            fromId = hi;
+        }
+        return new PromotionReport(promoted, processed, skipped, Duration.ZERO);
+    }
+}
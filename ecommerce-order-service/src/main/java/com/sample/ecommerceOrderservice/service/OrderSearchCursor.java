@@ -0,0 +1,48 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.repository.OrderRow;
+import com.sample.ecommerceOrderservice.repository.OrderSearch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of a search page: the sort value and id of its last row, plus the
+ * ordering it belongs to, so a cursor cannot be replayed against a different sort.
+ * Encoded for clients as an opaque URL-safe token, like {@link OrderCursor}.
+ */
+public final class OrderSearchCursor {
+
+    private OrderSearchCursor() {}
+
+    public static String encode(OrderSearch search, OrderRow last) {
+        OrderSearch.SortField field = search.sort();
+        String raw = ordering(search) + ":" + field.format(field.valueOf(last)) + ":" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException if the token was not produced by {@link #encode} for this ordering */
+    public static OrderSearch.Position decode(String token, OrderSearch search) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (!parts[0].equals(ordering(search))) {
+            throw new IllegalArgumentException("Cursor belongs to a search sorted by " + parts[0]);
+        }
+        try {
+            return new OrderSearch.Position(search.sort().parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    private static String ordering(OrderSearch search) {
+        return search.sort().attribute() + "," + (search.descending() ? "desc" : "asc");
+    }
+}
@@ -1,33 +1,178 @@
 package com.sample.ecommerceOrderservice.service;
 
+import com.sample.ecommerceOrderservice.config.Shards;
+import com.sample.ecommerceOrderservice.dto.BatchOrderResult;
+import com.sample.ecommerceOrderservice.dto.BulkStatusResult;
+import com.sample.ecommerceOrderservice.dto.BulkStatusUpdate;
 import com.sample.ecommerceOrderservice.dto.OrderDTO;
 import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.dto.OrderPage;
 import com.sample.ecommerceOrderservice.entity.OrderEntity;
+import com.sample.ecommerceOrderservice.entity.OrderEventEntity;
 import com.sample.ecommerceOrderservice.entity.OrderItemEntity;
 import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderRepository;
+import com.sample.ecommerceOrderservice.repository.OrderEventRepository;
 import com.sample.ecommerceOrderservice.repository.OrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.OrderItemRow;
 import com.sample.ecommerceOrderservice.repository.OrderRepository;
-import org.springframework.scheduling.annotation.Scheduled;
+import com.sample.ecommerceOrderservice.repository.OrderRow;
+import com.sample.ecommerceOrderservice.repository.OrderSearch;
+import com.sample.ecommerceOrderservice.repository.OrderState;
+import com.sample.ecommerceOrderservice.repository.OrderVersion;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Every public method is observed as {@code orders.service}, tagged with its method name.
+ *
+ * With several {@link Shards}, single-order methods run on the shard their id names and new
+ * orders are placed round-robin; listings and search query every shard in parallel and merge
+ * the rows in page order.
+ */
 @Service
 @Transactional
+@Observed(name = "orders.service")
 public class OrderService {
 
+    /** Upper bound for a single keyset page, whatever the client asks for */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** Most orders accepted by one batch create call */
+    public static final int MAX_BATCH_ORDERS = 1000;
+
+    /** Most orders accepted by one bulk status change */
+    public static final int MAX_BULK_TRANSITIONS = 1000;
+
+    /** Orders persisted per flush; matches hibernate.jdbc.batch_size */
+    private static final int BATCH_FLUSH_SIZE = 50;
+
+    /** Order of keyset pages, for merging the pages of several shards */
+    private static final Comparator<OrderRow> PAGE_ORDER =
+            Comparator.comparing(OrderRow::createdAt).thenComparingLong(OrderRow::id);
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository itemRepository;
+    private final EntityManager entityManager;
+    private final OrderCache orderCache;
+    private final OrderStats orderStats;
+    private final OrderEventRepository eventRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedItemRepository;
+    private final Shards shards;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
 
-    public OrderService(OrderRepository orderRepository, OrderItemRepository itemRepository) {
+    public OrderService(OrderRepository orderRepository, OrderItemRepository itemRepository,
+                        EntityManager entityManager, OrderCache orderCache, OrderStats orderStats,
+                        OrderEventRepository eventRepository, ArchivedOrderRepository archivedOrderRepository,
+                        ArchivedOrderItemRepository archivedItemRepository, Shards shards,
+                        PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+        this.orderCache = orderCache;
+        this.orderStats = orderStats;
+        this.eventRepository = eventRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedItemRepository = archivedItemRepository;
+        this.shards = shards;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     /** Create order */
     public OrderDTO createOrder(List<OrderItemDTO> itemDTOs) {
+        return shards.on(shards.forNewOrder(), () -> {
+            OrderEntity order = newOrder(itemDTOs);
+            orderRepository.save(order);
+            // insert while the shard is bound; with pooled ids the commit may be the first statement
+            orderRepository.flush();
+            orderStats.recordCreatedAfterCommit(1, order.getTotalPrice());
+            return OrderMapper.toDTO(order);
+        });
+    }
+
+    /**
+     * Create many orders in one transaction. Invalid orders are rejected individually;
+     * valid ones are flushed in slices so Hibernate sends batched INSERTs and the
+     * persistence context stays small. All orders of one batch go to the same shard.
+     */
+    public List<BatchOrderResult> createOrders(List<List<OrderItemDTO>> orders) {
+        if (orders.size() > MAX_BATCH_ORDERS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_ORDERS + " orders per batch");
+        }
+        return shards.on(shards.forNewOrder(), () -> createBatch(orders));
+    }
+
+    private List<BatchOrderResult> createBatch(List<List<OrderItemDTO>> orders) {
+        BatchOrderResult[] results = new BatchOrderResult[orders.size()];
+        List<OrderEntity> slice = new ArrayList<>(BATCH_FLUSH_SIZE);
+        List<Integer> sliceIndexes = new ArrayList<>(BATCH_FLUSH_SIZE);
+
+        for (int i = 0; i < orders.size(); i++) {
+            Optional<String> problem = validate(orders.get(i));
+            if (problem.isPresent()) {
+                results[i] = BatchOrderResult.rejected(i, problem.get());
+                continue;
+            }
+            slice.add(newOrder(orders.get(i)));
+            sliceIndexes.add(i);
+            if (slice.size() == BATCH_FLUSH_SIZE) {
+                persistSlice(slice, sliceIndexes, results);
+            }
+        }
+        persistSlice(slice, sliceIndexes, results);
+        return Arrays.asList(results);
+    }
+
+    private void persistSlice(List<OrderEntity> slice, List<Integer> indexes, BatchOrderResult[] results) {
+        if (slice.isEmpty()) {
+            return;
+        }
+        orderRepository.saveAll(slice);
+        orderRepository.flush();
+        orderStats.recordCreatedAfterCommit(slice.size(), slice.stream().mapToDouble(OrderEntity::getTotalPrice).sum());
+        for (int i = 0; i < slice.size(); i++) {
+            results[indexes.get(i)] = BatchOrderResult.created(indexes.get(i), OrderMapper.toDTO(slice.get(i)));
+        }
+        entityManager.clear();
+        slice.clear();
+        indexes.clear();
+    }
+
+    static Optional<String> validate(List<OrderItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            return Optional.of("Order has no items");
+        }
+        for (OrderItemDTO item : items) {
+            if (item == null || item.getName() == null || item.getName().isBlank()) {
+                return Optional.of("Item name is required");
+            }
+            if (item.getQuantity() <= 0) {
+                return Optional.of("Quantity must be positive for item " + item.getName());
+            }
+            if (item.getPrice() < 0) {
+                return Optional.of("Price must not be negative for item " + item.getName());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static OrderEntity newOrder(List<OrderItemDTO> itemDTOs) {
         OrderEntity order = new OrderEntity();
         List<OrderItemEntity> items = itemDTOs.stream()
                 .map(dto -> {
@@ -37,59 +182,281 @@ public class OrderService {
                 }).collect(Collectors.toList());
 
         order.setItems(items);
-        orderRepository.save(order);
-        return mapToDTO(order);
+        return order;
     }
 
-    /** Retrieve order by ID */
+    /**
+     * Retrieve order by ID: served from {@link OrderCache}, else one header query plus one
+     * item query. Orders moved by {@link OrderArchiver} are found the same way in the archive.
+     */
+    @Transactional(readOnly = true)
     public Optional<OrderDTO> getOrder(Long id) {
-        return orderRepository.findById(id).map(this::mapToDTO);
+        return orderCache.get(id, () -> shards.on(shards.shardOf(id), () -> orderRepository.findRowById(id)
+                .map(row -> OrderMapper.toDTOs(List.of(row), itemRepository.findRowsByOrderIds(List.of(id))).get(0))
+                .or(() -> archivedOrderRepository.findRowById(id)
+                        .map(row -> OrderMapper.toDTOs(List.of(row),
+                                archivedItemRepository.findRowsByOrderIds(List.of(id))).get(0)))));
+    }
+
+    /**
+     * Version of an order for answering a conditional GET: from {@link OrderCache} if it
+     * holds the order, else one single-row query on {@code orders}. Items are never read.
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderVersion> getOrderVersion(Long id) {
+        Optional<OrderDTO> cached = orderCache.peek(id);
+        if (cached.isPresent()) {
+            OrderDTO order = cached.get();
+            return Optional.of(new OrderVersion(order.getVersion(),
+                    order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt()));
+        }
+        return shards.on(shards.shardOf(id), () -> orderRepository.findVersionById(id)
+                .or(() -> archivedOrderRepository.findVersionById(id)));
+    }
+
+    /** As {@link #listOrderPage(Optional, Optional, int, boolean, Predicate)}, always returning the page */
+    @Transactional(readOnly = true)
+    public OrderPage listOrderPage(Optional<OrderStatus> status, Optional<String> after, int limit,
+                                   boolean includeItems) {
+        return listOrderPage(status, after, limit, includeItems, etag -> false).orElseThrow();
+    }
+
+    /**
+     * Keyset page ordered by (createdAt, id), optionally filtered by status.
+     * Cost per page is independent of how deep the cursor is. With {@code includeItems}
+     * false the page is a single query on {@code orders}, using the stored totals.
+     *
+     * The page's ETag is computed from the header rows alone; if {@code unchanged} accepts
+     * it, the result is empty and items are not loaded.
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderPage> listOrderPage(Optional<OrderStatus> status, Optional<String> after, int limit,
+                                             boolean includeItems, Predicate<String> unchanged) {
+        int size = pageSize(limit);
+        // one extra row tells us whether another page exists
+        Limit fetch = Limit.of(size + 1);
+        Optional<OrderCursor> cursor = after.map(OrderCursor::decode);
+
+        List<OrderRow> rows = merge(onEachShard(() -> {
+            if (cursor.isPresent()) {
+                OrderCursor c = cursor.get();
+                return status.isPresent()
+                        ? orderRepository.findPageRowsAfterByStatus(status.get(), c.createdAt(), c.id(), fetch)
+                        : orderRepository.findPageRowsAfter(c.createdAt(), c.id(), fetch);
+            }
+            return status.isPresent()
+                    ? orderRepository.findPageRowsByStatus(status.get(), fetch)
+                    : orderRepository.findPageRows(fetch);
+        }), PAGE_ORDER, fetch.max());
+
+        return toPage(rows, size, last -> new OrderCursor(last.createdAt(), last.id()).encode(), includeItems,
+                unchanged);
+    }
+
+    /**
+     * Keyset page of the orders matching {@code search}, in its sort order. All filters go
+     * into the WHERE clause of one header query, so only the rows of the page are read
+     * (plus one to detect the next page); items are then loaded as for
+     * {@link #listOrderPage}. ETags and {@code unchanged} work the same way too.
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderPage> searchOrders(OrderSearch search, Optional<String> after, int limit,
+                                            boolean includeItems, Predicate<String> unchanged) {
+        int size = pageSize(limit);
+        OrderSearch.Position position = after.map(token -> OrderSearchCursor.decode(token, search)).orElse(null);
+        Limit fetch = Limit.of(size + 1);
+        List<OrderRow> rows = merge(onEachShard(() -> orderRepository.search(search, position, fetch)),
+                search.rowOrder(), fetch.max());
+        return toPage(rows, size, last -> OrderSearchCursor.encode(search, last), includeItems, unchanged);
+    }
+
+    private static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /** Trims the extra row fetched beyond {@code size} into a next cursor, then loads the page unless unchanged */
+    private Optional<OrderPage> toPage(List<OrderRow> rows, int size, Function<OrderRow, String> cursorOf,
+                                       boolean includeItems, Predicate<String> unchanged) {
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = cursorOf.apply(rows.get(size - 1));
+        }
+        String etag = OrderETags.forPage(rows, includeItems, nextCursor);
+        if (unchanged.test(etag)) {
+            return Optional.empty();
+        }
+        return Optional.of(new OrderPage(includeItems ? withItems(rows) : OrderMapper.toSummaryDTOs(rows),
+                nextCursor, etag));
     }
 
-    /** List all orders or by status */
+    /** List all orders or by status (unbounded; only reachable through an explicit opt-in) */
+    @Transactional(readOnly = true)
     public List<OrderDTO> listOrders(Optional<OrderStatus> status) {
-        List<OrderEntity> orders = status.map(orderRepository::findByStatus)
-                .orElse(orderRepository.findAll());
-        return orders.stream().map(this::mapToDTO).collect(Collectors.toList());
+        OrderStatus filter = status.orElse(null);
+        return merge(onEachShard(() -> OrderMapper.toDTOs(orderRepository.findAllRows(filter),
+                        itemRepository.findAllRows(filter))),
+                Comparator.comparing(OrderDTO::getCreatedAt).thenComparing(OrderDTO::getId), Integer.MAX_VALUE);
     }
 
-    /** Update status manually */
-    public boolean updateStatus(Long id, OrderStatus newStatus) {
-        return orderRepository.findById(id).map(order -> {
-            order.setStatus(newStatus);
-            orderRepository.save(order);
-            return true;
-        }).orElse(false);
+    private List<OrderDTO> withItems(List<OrderRow> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, List<Long>> idsByShard = rows.stream().collect(Collectors.groupingBy(
+                row -> shards.shardOf(row.id()), Collectors.mapping(OrderRow::id, Collectors.toList())));
+        List<OrderItemRow> items = onEachShard(() -> {
+            List<Long> ids = idsByShard.getOrDefault(Shards.current(), List.of());
+            return ids.isEmpty() ? List.<OrderItemRow>of() : itemRepository.findRowsByOrderIds(ids);
+        }).stream().flatMap(List::stream).collect(Collectors.toList());
+        return OrderMapper.toDTOs(rows, items);
+    }
+
+    /**
+     * Runs a read on every shard in parallel, each in a read-only transaction of its own.
+     * With one shard it runs in the caller's transaction instead.
+     */
+    private <T> List<List<T>> onEachShard(Supplier<List<T>> read) {
+        return shards.onEach(() -> readOnlyTx.execute(status -> read.get()));
+    }
+
+    /** The first {@code limit} rows of the per-shard results, each already sorted by {@code order} */
+    private static <T> List<T> merge(List<List<T>> parts, Comparator<? super T> order, int limit) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        return parts.stream().flatMap(List::stream).sorted(order).limit(limit).collect(Collectors.toList());
+    }
+
+    /** Update status manually, following the transitions declared on {@link OrderStatus} */
+    public TransitionResult updateStatus(Long id, OrderStatus newStatus) {
+        return updateStatus(id, newStatus, null);
+    }
+
+    /** As {@link #updateStatus(Long, OrderStatus)}, but only if the order is still at {@code expectedVersion} */
+    public TransitionResult updateStatus(Long id, OrderStatus newStatus, Long expectedVersion) {
+        return transition(id, newStatus, expectedVersion);
     }
 
     /** Cancel order if PENDING */
-    public boolean cancelOrder(Long id) {
-        return orderRepository.findById(id).map(order -> {
-            if (order.getStatus() == OrderStatus.PENDING) {
-                order.setStatus(OrderStatus.CANCELED);
-                orderRepository.save(order);
-                return true;
+    public TransitionResult cancelOrder(Long id) {
+        return transition(id, OrderStatus.CANCELED, null);
+    }
+
+    /**
+     * Status changes for many orders, with one result per order in request order. On each
+     * shard the orders are locked and read with one SELECT and checked against the allowed
+     * transitions (and expected versions) in memory. Then one outbox INSERT ... SELECT and
+     * one UPDATE run per distinct (from, to) pair, however many orders share it. With one
+     * shard everything is one transaction; with several, each shard's part commits on its own.
+     */
+    public List<BulkStatusResult> updateStatuses(List<BulkStatusUpdate.Transition> transitions) {
+        if (transitions.isEmpty() || transitions.size() > MAX_BULK_TRANSITIONS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BULK_TRANSITIONS + " orders per bulk status change");
+        }
+        Set<Long> seen = new HashSet<>();
+        for (BulkStatusUpdate.Transition transition : transitions) {
+            if (transition == null || transition.getId() == null || transition.getStatus() == null) {
+                throw new IllegalArgumentException("Every transition needs an id and a status");
             }
-            return false;
-        }).orElse(false);
+            if (!seen.add(transition.getId())) {
+                throw new IllegalArgumentException("Order " + transition.getId() + " appears more than once");
+            }
+        }
+
+        Map<Integer, List<BulkStatusUpdate.Transition>> byShard = transitions.stream()
+                .collect(Collectors.groupingBy(transition -> shards.shardOf(transition.getId())));
+        Map<Long, TransitionResult> outcomes = new HashMap<>();
+        shards.onEach(() -> {
+            List<BulkStatusUpdate.Transition> mine = byShard.getOrDefault(Shards.current(), List.of());
+            return mine.isEmpty() ? Map.<Long, TransitionResult>of() : tx.execute(status -> transitionAllOnShard(mine));
+        }).forEach(outcomes::putAll);
+
+        return transitions.stream()
+                .map(transition -> new BulkStatusResult(transition.getId(), outcomes.get(transition.getId())))
+                .collect(Collectors.toList());
     }
 
-    /** Background job: every 5 minutes auto-update pending orders */
-    @Scheduled(fixedRate = 300000)
-    public void autoUpdatePendingOrders() {
-        System.out.println("Running scheduled job: updating pending orders...");
-        List<OrderEntity> pending = orderRepository.findByStatus(OrderStatus.PENDING);
-        pending.forEach(order -> {
-            order.setStatus(OrderStatus.PROCESSING);
-            orderRepository.save(order);
-            System.out.println("Auto-updated Order #" + order.getId() + " → PROCESSING");
+    private record Move(OrderStatus from, OrderStatus to) {}
+
+    private Map<Long, TransitionResult> transitionAllOnShard(List<BulkStatusUpdate.Transition> transitions) {
+        List<Long> ids = transitions.stream().map(BulkStatusUpdate.Transition::getId).toList();
+        Map<Long, OrderState> live = new HashMap<>();
+        orderRepository.lockStates(ids).forEach(state -> live.put(state.id(), state));
+        // archived orders are terminal: they exist, but no transition applies
+        Map<Long, OrderState> archived = new HashMap<>();
+        if (live.size() < ids.size()) {
+            archivedOrderRepository.findStates(ids.stream().filter(id -> !live.containsKey(id)).toList())
+                    .forEach(state -> archived.put(state.id(), state));
+        }
+
+        Map<Long, TransitionResult> results = new HashMap<>();
+        Map<Move, List<OrderState>> moves = new LinkedHashMap<>();
+        for (BulkStatusUpdate.Transition transition : transitions) {
+            Long id = transition.getId();
+            OrderStatus target = transition.getStatus();
+            OrderState state = live.get(id);
+            if (state == null) {
+                OrderState old = archived.get(id);
+                results.put(id, old == null
+                        ? new TransitionResult(TransitionResult.Outcome.NOT_FOUND, null)
+                        : new TransitionResult(TransitionResult.Outcome.ILLEGAL_TRANSITION, old.status()));
+            } else if (!target.allowedSources().contains(state.status())) {
+                results.put(id, new TransitionResult(TransitionResult.Outcome.ILLEGAL_TRANSITION, state.status()));
+            } else if (transition.getVersion() != null && !transition.getVersion().equals(state.version())) {
+                results.put(id, new TransitionResult(TransitionResult.Outcome.CONFLICT, state.status()));
+            } else {
+                moves.computeIfAbsent(new Move(state.status(), target), move -> new ArrayList<>()).add(state);
+                results.put(id, new TransitionResult(TransitionResult.Outcome.APPLIED, target));
+            }
+        }
+
+        List<Long> changed = new ArrayList<>();
+        moves.forEach((move, states) -> {
+            List<Long> moved = states.stream().map(OrderState::id).toList();
+            eventRepository.insertTransitions(moved, move.to());
+            orderRepository.transitionAll(moved, move.to());
+            orderStats.recordTransitionAfterCommit(move.from(), move.to(), moved.size(),
+                    states.stream().mapToDouble(OrderState::totalPrice).sum());
+            changed.addAll(moved);
         });
+        if (!changed.isEmpty()) {
+            orderCache.invalidateAfterCommit(changed);
+        }
+        return results;
     }
 
-    private OrderDTO mapToDTO(OrderEntity entity) {
-        List<OrderItemDTO> itemDTOs = entity.getItems().stream()
-                .map(i -> new OrderItemDTO(i.getName(), i.getQuantity(), i.getPrice()))
-                .collect(Collectors.toList());
-        return new OrderDTO(entity.getId(), entity.getStatus(), entity.getCreatedAt(), itemDTOs, entity.getTotalPrice());
+    /**
+     * One conditional UPDATE per allowed source status (currently always exactly one),
+     * so the status the order left is known for {@link OrderStats} and the outbox row
+     * written with the change. The status is only re-read on failure, to tell the caller
+     * why nothing changed; a lost race (still in an allowed status) is a CONFLICT, never
+     * retried. On success the total for OrderStats is read back by primary key.
+     */
+    private TransitionResult transition(Long id, OrderStatus target, Long expectedVersion) {
+        return shards.on(shards.shardOf(id), () -> transitionOnShard(id, target, expectedVersion));
+    }
+
+    private TransitionResult transitionOnShard(Long id, OrderStatus target, Long expectedVersion) {
+        Set<OrderStatus> sources = target.allowedSources();
+        for (OrderStatus source : sources) {
+            if (orderRepository.transition(id, Set.of(source), target, expectedVersion) == 1) {
+                eventRepository.save(new OrderEventEntity(id, source, target));
+                orderCache.invalidateAfterCommit(List.of(id));
+                orderStats.recordTransitionAfterCommit(source, target, 1,
+                        orderRepository.findTotalPriceById(id).orElse(0.0));
+                return new TransitionResult(TransitionResult.Outcome.APPLIED, target);
+            }
+        }
+        // archived orders are terminal: they exist, but no transition applies
+        return orderRepository.findStatusById(id)
+                .or(() -> archivedOrderRepository.findStatusById(id))
+                .map(current -> sources.contains(current)
+                        ? new TransitionResult(TransitionResult.Outcome.CONFLICT, current)
+                        : new TransitionResult(TransitionResult.Outcome.ILLEGAL_TRANSITION, current))
+                .orElse(new TransitionResult(TransitionResult.Outcome.NOT_FOUND, null));
     }
 }
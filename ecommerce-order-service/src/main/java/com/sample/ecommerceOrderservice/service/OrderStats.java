@@ -0,0 +1,136 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.config.Shards;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import com.sample.ecommerceOrderservice.repository.StatusTotals;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory order counts and revenue per status, for GET /api/orders/stats.
+ *
+ * Every create and status change reports its delta here once its transaction commits,
+ * so reading the stats never touches the database. The counters cover archived orders
+ * too, and are rebuilt from a GROUP BY over {@code orders} and {@code orders_archive} at
+ * startup and again every {@code orders.stats.reconcile-interval-ms}; a change or archive
+ * move that commits while those queries run can be counted twice or missed until the
+ * next reconciliation.
+ */
+@Component
+public class OrderStats {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStats.class);
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    /**
+     * Counters at one point in time. {@code totalRevenue} leaves out canceled orders;
+     * {@code reconciledAt} is when they were last rebuilt from the database.
+     */
+    public record Snapshot(Map<OrderStatus, Long> counts, Map<OrderStatus, Double> revenue,
+                           long totalOrders, double totalRevenue, Date reconciledAt) {}
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final Shards shards;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] counts = new long[STATUSES.length];
+    private final double[] revenue = new double[STATUSES.length];
+    private Date reconciledAt;
+
+    public OrderStats(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository, Shards shards) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.shards = shards;
+    }
+
+    /** Counts new PENDING orders once the current transaction commits (immediately without one) */
+    public void recordCreatedAfterCommit(long orders, double totalPrice) {
+        AfterCommit.run(() -> apply(null, OrderStatus.PENDING, orders, totalPrice));
+    }
+
+    /** Moves orders and their revenue between statuses once the current transaction commits */
+    public void recordTransitionAfterCommit(OrderStatus from, OrderStatus to, long orders, double totalPrice) {
+        AfterCommit.run(() -> apply(from, to, orders, totalPrice));
+    }
+
+    public Snapshot snapshot() {
+        Map<OrderStatus, Long> countsByStatus = new EnumMap<>(OrderStatus.class);
+        Map<OrderStatus, Double> revenueByStatus = new EnumMap<>(OrderStatus.class);
+        long totalOrders = 0;
+        double totalRevenue = 0;
+        lock.lock();
+        try {
+            for (OrderStatus status : STATUSES) {
+                int i = status.ordinal();
+                countsByStatus.put(status, counts[i]);
+                revenueByStatus.put(status, revenue[i]);
+                totalOrders += counts[i];
+                if (status != OrderStatus.CANCELED) {
+                    totalRevenue += revenue[i];
+                }
+            }
+            return new Snapshot(countsByStatus, revenueByStatus, totalOrders, totalRevenue, reconciledAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Rebuilds the counters from every shard; at startup, then every 10 minutes by default */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${orders.stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${orders.stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        long[] freshCounts = new long[STATUSES.length];
+        double[] freshRevenue = new double[STATUSES.length];
+        List<List<StatusTotals>> perShard = shards.onEach(() -> {
+            List<StatusTotals> totals = new ArrayList<>(orderRepository.totalsByStatus());
+            totals.addAll(archivedOrderRepository.totalsByStatus());
+            return totals;
+        });
+        for (List<StatusTotals> shard : perShard) {
+            for (StatusTotals totals : shard) {
+                freshCounts[totals.status().ordinal()] += totals.orders();
+                freshRevenue[totals.status().ordinal()] += totals.revenue();
+            }
+        }
+        lock.lock();
+        try {
+            for (int i = 0; i < STATUSES.length; i++) {
+                if (reconciledAt != null && counts[i] != freshCounts[i]) {
+                    log.warn("Order stats drifted for {}: {} counted, {} stored", STATUSES[i], counts[i], freshCounts[i]);
+                }
+                counts[i] = freshCounts[i];
+                revenue[i] = freshRevenue[i];
+            }
+            reconciledAt = new Date();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(OrderStatus from, OrderStatus to, long orders, double totalPrice) {
+        lock.lock();
+        try {
+            if (from != null) {
+                counts[from.ordinal()] -= orders;
+                revenue[from.ordinal()] -= totalPrice;
+            }
+            counts[to.ordinal()] += orders;
+            revenue[to.ordinal()] += totalPrice;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
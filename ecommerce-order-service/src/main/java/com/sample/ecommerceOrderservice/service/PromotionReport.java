@@ -0,0 +1,7 @@
+package com.sample.ecommerceOrderservice.service;
+
+import java.time.Duration;
+
+/** Outcome of one run of the pending-order promotion job */
+public record PromotionReport(int rowsPromoted, int chunksProcessed, int chunksSkipped, Duration duration) {
+}
@@ -0,0 +1,44 @@
+package com.sample.ecommerceOrderservice.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out ids from a database sequence in blocks, the same way Hibernate's pooled
+ * optimizer does for an entity with {@code allocationSize = blockSize}: a sequence value
+ * {@code v} reserves {@code (v - blockSize, v]}. Ids taken here and ids Hibernate takes
+ * for the same sequence therefore never overlap. A {@link ReentrantLock} rather than a
+ * monitor guards the block, so a virtual thread waiting on the sequence does not pin its carrier.
+ */
+class SequenceBlockAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long next;
+    private long last = -1;
+
+    SequenceBlockAllocator(JdbcTemplate jdbcTemplate, String sequence, int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sql = "select next value for " + sequence;
+        this.blockSize = blockSize;
+    }
+
+    long next() {
+        lock.lock();
+        try {
+            if (next > last) {
+                Long hi = jdbcTemplate.queryForObject(sql, Long.class);
+                // the very first value of a fresh sequence has no full block below it
+                next = Math.max(1, hi - blockSize + 1);
+                last = hi;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
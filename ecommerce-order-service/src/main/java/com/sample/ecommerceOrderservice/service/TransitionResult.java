@@ -0,0 +1,23 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+
+/**
+ * Outcome of a conditional status change. {@code status} is the new status when the
+ * change was applied and the status found in the database otherwise (null if not found).
+ */
+public record TransitionResult(Outcome outcome, OrderStatus status) {
+
+    public enum Outcome {
+        APPLIED,
+        NOT_FOUND,
+        /** The state machine does not allow moving from the current status to the target */
+        ILLEGAL_TRANSITION,
+        /** The order changed concurrently (or its version did not match); re-read and retry */
+        CONFLICT
+    }
+
+    public boolean applied() {
+        return outcome == Outcome.APPLIED;
+    }
+}
@@ -0,0 +1,73 @@
+-- Tables, primary keys and sequences for the entities. Indexes, and the foreign key
+-- that relies on one, are in V2.
+
+create sequence orders_seq start with 1 increment by 50;
+create sequence order_items_seq start with 1 increment by 50;
+
+create table orders (
+    id          bigint           not null,
+    status      varchar(16),
+    created_at  timestamp(6),
+    updated_at  timestamp(6),
+    total_price double precision not null,
+    item_count  integer          not null,
+    version     bigint,
+    constraint pk_orders primary key (id),
+    constraint ck_orders_status check (status in ('PENDING', 'PROCESSING', 'SHIPPED', 'DELIVERED', 'CANCELED'))
+);
+
+create table order_items (
+    id       bigint           not null,
+    order_id bigint,
+    name     varchar(255),
+    quantity integer          not null,
+    price    double precision not null,
+    constraint pk_order_items primary key (id)
+);
+
+create table orders_archive (
+    id          bigint           not null,
+    status      varchar(16)      not null,
+    created_at  timestamp(6),
+    updated_at  timestamp(6),
+    total_price double precision not null,
+    item_count  integer          not null,
+    version     bigint,
+    archived_at timestamp(6)     not null,
+    constraint pk_orders_archive primary key (id)
+);
+
+create table order_items_archive (
+    id       bigint           not null,
+    order_id bigint           not null,
+    name     varchar(255),
+    quantity integer          not null,
+    price    double precision not null,
+    constraint pk_order_items_archive primary key (id)
+);
+
+create table order_events (
+    id          bigint generated by default as identity,
+    order_id    bigint       not null,
+    from_status varchar(16)  not null,
+    to_status   varchar(16)  not null,
+    occurred_at timestamp(6) not null,
+    seq         bigint,
+    constraint pk_order_events primary key (id),
+    constraint uk_order_events_seq unique (seq)
+);
+
+create table idempotency_keys (
+    idempotency_key varchar(255) not null,
+    request_hash    varchar(64)  not null,
+    response        clob         not null,
+    expires_at      timestamp(6) not null,
+    constraint pk_idempotency_keys primary key (idempotency_key)
+);
+
+create table job_leases (
+    lease_key  varchar(255) not null,
+    owner      varchar(255) not null,
+    expires_at timestamp(6) not null,
+    constraint pk_job_leases primary key (lease_key)
+);
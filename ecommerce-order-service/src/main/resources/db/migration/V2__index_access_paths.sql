@@ -0,0 +1,23 @@
+-- One index per access path; QueryPlanIntegrationTest checks that every repository
+-- query uses the one listed here.
+
+-- OrderRepository: keyset pages (findPageRows, findPageRowsAfter)
+create index idx_orders_created_at_id on orders (created_at, id);
+-- OrderRepository: keyset pages filtered by status (findPageRowsByStatus, findPageRowsAfterByStatus)
+create index idx_orders_status_created_at_id on orders (status, created_at, id);
+-- OrderRepository: findByStatus, promotion ranges (findFirstIdByStatusFrom, lockTotalsInRange,
+-- transitionRange) and the archiver scan (findIdsUnchangedSince)
+create index idx_orders_status_id on orders (status, id);
+
+-- OrderItemRepository: items of a page (findRowsByOrderIds) and deleteByOrderIds. The foreign
+-- key is added after it so the database reuses this index instead of creating its own
+create index idx_order_items_order_id on order_items (order_id);
+alter table order_items add constraint fk_order_items_order foreign key (order_id) references orders (id);
+-- ArchivedOrderItemRepository: items of an archived order
+create index idx_order_items_archive_order_id on order_items_archive (order_id);
+
+-- OrderEventDispatcher purge (deleteSequencedBefore); seq lookups use uk_order_events_seq
+create index idx_order_events_occurred_at on order_events (occurred_at);
+
+-- IdempotencyStore purge (deleteExpired)
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
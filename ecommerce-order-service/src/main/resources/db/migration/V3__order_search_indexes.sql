@@ -0,0 +1,7 @@
+-- Access paths of GET /api/orders/search (OrderSearchRepository). Status and createdAt
+-- filters reuse the V2 indexes.
+
+-- sort=totalPrice and minTotal/maxTotal ranges, ending in id for the keyset tie-break
+create index idx_orders_total_price_id on orders (total_price, id);
+-- itemName prefix: range seek on name, covering the order_id the search selects
+create index idx_order_items_name on order_items (name, order_id);
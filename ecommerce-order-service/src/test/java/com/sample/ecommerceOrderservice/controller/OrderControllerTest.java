@@ -1,9 +1,19 @@
 package com.sample.ecommerceOrderservice.controller;
+import com.sample.ecommerceOrderservice.dto.BatchOrderResult;
 import com.sample.ecommerceOrderservice.dto.OrderDTO;
 
 import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.dto.OrderPage;
 import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.OrderVersion;
+import com.sample.ecommerceOrderservice.service.IdempotencyKeyReuseException;
+import com.sample.ecommerceOrderservice.service.IdempotencyStore;
+import com.sample.ecommerceOrderservice.service.OrderCache;
+import com.sample.ecommerceOrderservice.service.OrderEventDispatcher;
+import com.sample.ecommerceOrderservice.service.OrderExporter;
 import com.sample.ecommerceOrderservice.service.OrderService;
+import com.sample.ecommerceOrderservice.service.OrderStats;
+import com.sample.ecommerceOrderservice.service.TransitionResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,13 +26,18 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 
 import java.util.*;
+import java.util.function.Predicate;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +52,21 @@ class OrderControllerTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private OrderCache orderCache;
+
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockitoBean
+    private OrderStats orderStats;
+
+    @MockitoBean
+    private OrderEventDispatcher eventDispatcher;
+
+    @MockitoBean
+    private OrderExporter orderExporter;
+
     @InjectMocks
     private OrderController orderController;
 
@@ -68,6 +98,52 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.status").value("PENDING"));
     }
 
+    @Test
+    void testCreateOrder_IdempotentReplay() throws Exception {
+        when(idempotencyStore.execute(eq("key-1"), any(), any()))
+                .thenReturn(new IdempotencyStore.Result(sampleOrder, true));
+
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new OrderItemDTO("Laptop", 1, 1200)))))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void testCreateOrder_IdempotencyKeyReused() throws Exception {
+        when(idempotencyStore.execute(eq("key-1"), any(), any()))
+                .thenThrow(new IdempotencyKeyReuseException("key-1"));
+
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new OrderItemDTO("Mouse", 1, 25)))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("Idempotency-Key key-1 was already used for a different request"));
+    }
+
+    @Test
+    void testCreateOrdersBatch_PartialSuccess() throws Exception {
+        List<List<OrderItemDTO>> orders = List.of(List.of(new OrderItemDTO("Laptop", 1, 1200)), List.of());
+        when(orderService.createOrders(any())).thenReturn(List.of(
+                BatchOrderResult.created(0, sampleOrder),
+                BatchOrderResult.rejected(1, "Order has no items")));
+
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orders)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$[0].order.id").value(1))
+                .andExpect(jsonPath("$[1].outcome").value("REJECTED"))
+                .andExpect(jsonPath("$[1].error").value("Order has no items"));
+    }
+
     @Test
     void testGetOrder_Found() throws Exception {
         when(orderService.getOrder(1L)).thenReturn(Optional.of(sampleOrder));
@@ -78,6 +154,47 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.status").value("PENDING"));
     }
 
+    @Test
+    void testGetOrder_SendsValidators() throws Exception {
+        Date updatedAt = new Date(1_700_000_000_000L);
+        when(orderService.getOrder(1L)).thenReturn(Optional.of(new OrderDTO(1L, OrderStatus.PROCESSING,
+                new Date(1_600_000_000_000L), List.of(), 0, 0, 4L, updatedAt)));
+
+        mockMvc.perform(get("/api/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-4\""))
+                .andExpect(header().dateValue("Last-Modified", updatedAt.getTime()));
+        verify(orderService, never()).getOrderVersion(any());
+    }
+
+    @Test
+    void testGetOrder_NotModifiedWithoutLoadingOrder() throws Exception {
+        when(orderService.getOrderVersion(1L)).thenReturn(Optional.of(new OrderVersion(4L, new Date(1_700_000_000_000L))));
+
+        mockMvc.perform(get("/api/orders/1").header("If-None-Match", "\"1-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"1-4\""));
+        mockMvc.perform(get("/api/orders/1").header("If-Modified-Since", "Tue, 14 Nov 2023 22:13:20 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(orderService, never()).getOrder(any());
+    }
+
+    @Test
+    void testGetOrder_ModifiedSinceClientCopy() throws Exception {
+        Date updatedAt = new Date(1_700_000_000_000L);
+        when(orderService.getOrderVersion(1L)).thenReturn(Optional.of(new OrderVersion(5L, updatedAt)));
+        when(orderService.getOrder(1L)).thenReturn(Optional.of(new OrderDTO(1L, OrderStatus.SHIPPED,
+                new Date(1_600_000_000_000L), List.of(), 0, 0, 5L, updatedAt)));
+
+        mockMvc.perform(get("/api/orders/1").header("If-None-Match", "\"1-4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-5\""))
+                .andExpect(jsonPath("$.status").value("SHIPPED"));
+        mockMvc.perform(get("/api/orders/1").header("If-Modified-Since", "Tue, 14 Nov 2023 22:13:19 GMT"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testGetOrder_NotFound() throws Exception {
         when(orderService.getOrder(2L)).thenReturn(Optional.empty());
@@ -90,15 +207,96 @@ class OrderControllerTest {
     void testListOrders() throws Exception {
         when(orderService.listOrders(any())).thenReturn(List.of(sampleOrder));
 
-        mockMvc.perform(get("/api/orders"))
+        mockMvc.perform(get("/api/orders").param("all", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].status").value("PENDING"));
     }
 
+    @Test
+    void testListOrders_PagedByDefault() throws Exception {
+        when(orderService.listOrderPage(eq(Optional.empty()), eq(Optional.of("abc")), eq(10), eq(true), any()))
+                .thenReturn(Optional.of(new OrderPage(List.of(sampleOrder), "next", "\"p1\"")));
+
+        mockMvc.perform(get("/api/orders").param("after", "abc").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.etag").doesNotExist())
+                .andExpect(header().string("ETag", "\"p1\""));
+    }
+
+    @Test
+    void testListOrders_NotModified() throws Exception {
+        when(orderService.listOrderPage(any(), any(), anyInt(), anyBoolean(), any())).thenAnswer(invocation -> {
+            Predicate<String> unchanged = invocation.getArgument(4);
+            return unchanged.test("\"p1\"") ? Optional.empty()
+                    : Optional.of(new OrderPage(List.of(sampleOrder), null, "\"p1\""));
+        });
+
+        mockMvc.perform(get("/api/orders").header("If-None-Match", "\"p1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/orders").header("If-None-Match", "\"p0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1));
+    }
+
+    @Test
+    void testListOrders_InvalidCursor() throws Exception {
+        when(orderService.listOrderPage(any(), any(), anyInt(), anyBoolean(), any()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: bogus"));
+
+        mockMvc.perform(get("/api/orders").param("after", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor: bogus"));
+    }
+
+    @Test
+    void testOrderEvents_PassesFiltersAndLastEventId() throws Exception {
+        when(eventDispatcher.subscribe(7L, OrderStatus.SHIPPED, 42L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/orders/events")
+                        .param("orderId", "7").param("status", "SHIPPED")
+                        .header("Last-Event-ID", "42")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(eventDispatcher).subscribe(7L, OrderStatus.SHIPPED, 42L);
+    }
+
+    @Test
+    void testCacheStats() throws Exception {
+        when(orderCache.stats()).thenReturn(new OrderCache.Stats(5, 2, 1, 0, 3));
+
+        mockMvc.perform(get("/api/orders/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(5))
+                .andExpect(jsonPath("$.misses").value(2))
+                .andExpect(jsonPath("$.evictions").value(1));
+    }
+
+    @Test
+    void testOrderStats() throws Exception {
+        when(orderStats.snapshot()).thenReturn(new OrderStats.Snapshot(
+                Map.of(OrderStatus.PENDING, 2L, OrderStatus.CANCELED, 1L),
+                Map.of(OrderStatus.PENDING, 300.0, OrderStatus.CANCELED, 50.0),
+                3, 300.0, new Date()));
+
+        mockMvc.perform(get("/api/orders/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.PENDING").value(2))
+                .andExpect(jsonPath("$.revenue.CANCELED").value(50.0))
+                .andExpect(jsonPath("$.totalOrders").value(3))
+                .andExpect(jsonPath("$.totalRevenue").value(300.0));
+
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     void testUpdateStatus() throws Exception {
-        when(orderService.updateStatus(1L, OrderStatus.SHIPPED)).thenReturn(true);
+        when(orderService.updateStatus(1L, OrderStatus.SHIPPED, null))
+                .thenReturn(new TransitionResult(TransitionResult.Outcome.APPLIED, OrderStatus.SHIPPED));
 
         mockMvc.perform(put("/api/orders/1/status")
                         .param("status", "SHIPPED"))
@@ -106,9 +304,43 @@ class OrderControllerTest {
                 .andExpect(content().string("Order updated to SHIPPED"));
     }
 
+    @Test
+    void testUpdateStatus_NotFound() throws Exception {
+        when(orderService.updateStatus(1L, OrderStatus.SHIPPED, null))
+                .thenReturn(new TransitionResult(TransitionResult.Outcome.NOT_FOUND, null));
+
+        mockMvc.perform(put("/api/orders/1/status")
+                        .param("status", "SHIPPED"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Order not found"));
+    }
+
+    @Test
+    void testUpdateStatus_IllegalTransition() throws Exception {
+        when(orderService.updateStatus(1L, OrderStatus.DELIVERED, null))
+                .thenReturn(new TransitionResult(TransitionResult.Outcome.ILLEGAL_TRANSITION, OrderStatus.PENDING));
+
+        mockMvc.perform(put("/api/orders/1/status")
+                        .param("status", "DELIVERED"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Cannot change order from PENDING to DELIVERED"));
+    }
+
+    @Test
+    void testUpdateStatus_StaleVersion() throws Exception {
+        when(orderService.updateStatus(1L, OrderStatus.SHIPPED, 4L))
+                .thenReturn(new TransitionResult(TransitionResult.Outcome.CONFLICT, OrderStatus.PROCESSING));
+
+        mockMvc.perform(put("/api/orders/1/status")
+                        .param("status", "SHIPPED")
+                        .param("version", "4"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void testCancelOrder_Success_MockMvc() throws Exception {
-        when(orderService.cancelOrder(1L)).thenReturn(true);
+        when(orderService.cancelOrder(1L))
+                .thenReturn(new TransitionResult(TransitionResult.Outcome.APPLIED, OrderStatus.CANCELED));
 
         mockMvc.perform(post("/api/orders/1/cancel"))
                 .andExpect(status().isOk())
@@ -117,10 +349,20 @@ class OrderControllerTest {
 
     @Test
     void testCancelOrder_Conflict_MockMvc() throws Exception {
-        when(orderService.cancelOrder(1L)).thenReturn(false);
+        when(orderService.cancelOrder(1L))
+                .thenReturn(new TransitionResult(TransitionResult.Outcome.ILLEGAL_TRANSITION, OrderStatus.PROCESSING));
 
         mockMvc.perform(post("/api/orders/1/cancel"))
                 .andExpect(status().isConflict())
-                .andExpect(content().string("Cannot cancel this order (not pending or not found)"));
+                .andExpect(content().string("Cannot cancel this order (status is PROCESSING)"));
+    }
+
+    @Test
+    void testCancelOrder_NotFound_MockMvc() throws Exception {
+        when(orderService.cancelOrder(1L)).thenReturn(new TransitionResult(TransitionResult.Outcome.NOT_FOUND, null));
+
+        mockMvc.perform(post("/api/orders/1/cancel"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Order not found"));
     }
 }
@@ -0,0 +1,34 @@
+package com.sample.ecommerceOrderservice.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusTest {
+
+    @Test
+    void testTransitionTable() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.PROCESSING));
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.CANCELED));
+        assertTrue(OrderStatus.PROCESSING.canTransitionTo(OrderStatus.SHIPPED));
+        assertTrue(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.DELIVERED));
+        assertFalse(OrderStatus.PROCESSING.canTransitionTo(OrderStatus.CANCELED));
+        assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.PENDING));
+    }
+
+    @Test
+    void testAllowedSourcesMirrorTransitions() {
+        assertEquals(Set.of(OrderStatus.PENDING), OrderStatus.CANCELED.allowedSources());
+        assertEquals(Set.of(OrderStatus.PROCESSING), OrderStatus.SHIPPED.allowedSources());
+        assertTrue(OrderStatus.PENDING.allowedSources().isEmpty());
+    }
+
+    @Test
+    void testTerminalStatuses() {
+        assertTrue(OrderStatus.DELIVERED.isTerminal());
+        assertTrue(OrderStatus.CANCELED.isTerminal());
+        assertFalse(OrderStatus.SHIPPED.isTerminal());
+    }
+}
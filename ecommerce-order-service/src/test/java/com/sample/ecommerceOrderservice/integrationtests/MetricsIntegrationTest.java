@@ -0,0 +1,62 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Checks the Prometheus scrape endpoint. Metrics export is off in tests unless
+ * {@link AutoConfigureObservability} turns it back on.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Transactional
+class MetricsIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    private final List<OrderItemDTO> sampleItems = List.of(new OrderItemDTO("Laptop", 1, 1200));
+
+    @Test
+    @DisplayName("Endpoint, service, SQL and pool metrics are exported for Prometheus")
+    void testPrometheusScrape() throws Exception {
+        String created = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleItems)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        mockMvc.perform(get("/api/orders/" + id)).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/api/orders/{id}\"")
+                .contains("orders_service_seconds_count{")
+                .contains("method=\"getOrder\"")
+                .contains("http_server_requests_statements_count{")
+                .contains("hibernate_statements_total")
+                .contains("hikaricp_connections_pending")
+                .contains("orders_promotion_rows_total")
+                .contains("cache_gets_total{cache=\"orders\"");
+    }
+}
@@ -0,0 +1,121 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderRepository;
+import com.sample.ecommerceOrderservice.repository.JobLeaseRepository;
+import com.sample.ecommerceOrderservice.repository.OrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import com.sample.ecommerceOrderservice.service.OrderArchiver;
+import com.sample.ecommerceOrderservice.service.OrderCache;
+import com.sample.ecommerceOrderservice.service.OrderStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/** Terminal orders move to the archive tables in chunks and stay readable by id */
+@SpringBootTest(properties = {
+        "orders.archive.min-age-ms=0",
+        "orders.archive.chunk-size=2",
+        "orders.archive.pause-ms=0"
+})
+@AutoConfigureMockMvc
+class OrderArchiveIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderItemRepository itemRepository;
+    @Autowired private ArchivedOrderRepository archivedOrderRepository;
+    @Autowired private ArchivedOrderItemRepository archivedItemRepository;
+    @Autowired private JobLeaseRepository leaseRepository;
+    @Autowired private OrderArchiver archiver;
+    @Autowired private OrderCache orderCache;
+    @Autowired private OrderStats orderStats;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        archivedItemRepository.deleteAll();
+        archivedOrderRepository.deleteAll();
+        leaseRepository.deleteAll();
+        orderStats.reconcile();
+    }
+
+    @Test
+    @DisplayName("Only terminal orders are moved, in chunks, with their items")
+    void testArchivesTerminalOrders() throws Exception {
+        List<Long> canceled = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            long id = create();
+            mockMvc.perform(post("/api/orders/" + id + "/cancel")).andExpect(status().isOk());
+            canceled.add(id);
+        }
+        long delivered = create();
+        for (OrderStatus next : List.of(OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED)) {
+            mockMvc.perform(put("/api/orders/" + delivered + "/status").param("status", next.name()))
+                    .andExpect(status().isOk());
+        }
+        long pending = create();
+        Thread.sleep(5); // strictly older than the cutoff
+        orderStats.reconcile();
+        OrderStats.Snapshot before = orderStats.snapshot();
+
+        assertThat(archiver.archive()).isEqualTo(4);
+
+        assertThat(orderRepository.findAll()).extracting(o -> o.getId()).containsExactly(pending);
+        assertThat(itemRepository.count()).isEqualTo(2);
+        assertThat(archivedOrderRepository.findAllById(canceled)).hasSize(3)
+                .allSatisfy(o -> assertThat(o.getStatus()).isEqualTo(OrderStatus.CANCELED));
+        assertThat(archivedItemRepository.count()).isEqualTo(8);
+
+        orderStats.reconcile();
+        assertThat(orderStats.snapshot().counts()).isEqualTo(before.counts());
+        assertThat(archiver.archive()).isZero();
+    }
+
+    @Test
+    @DisplayName("Archived orders are still served by id, and refuse transitions with 409")
+    void testArchivedOrderIsReadable() throws Exception {
+        long id = create();
+        mockMvc.perform(post("/api/orders/" + id + "/cancel")).andExpect(status().isOk());
+        Thread.sleep(5);
+        archiver.archive();
+        orderCache.invalidateAfterCommit(List.of(id));
+
+        mockMvc.perform(get("/api/orders/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELED"))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.totalPrice").value(1250.0))
+                .andExpect(header().string("ETag", "W/\"" + id + "-1\""));
+        mockMvc.perform(get("/api/orders/" + id).header("If-None-Match", "W/\"" + id + "-1\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(put("/api/orders/" + id + "/status").param("status", "SHIPPED"))
+                .andExpect(status().isConflict());
+    }
+
+    private long create() throws Exception {
+        String body = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new OrderItemDTO("Laptop", 1, 1200), new OrderItemDTO("Mouse", 2, 25)))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
@@ -0,0 +1,107 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/** ETag / Last-Modified revalidation against the real database and cache */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderConditionalGetIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private OrderRepository orderRepository;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A single order revalidates until its status changes")
+    void testOrderRevalidation() throws Exception {
+        long id = create(List.of(new OrderItemDTO("Laptop", 1, 1200)));
+
+        MockHttpServletResponse first = mockMvc.perform(get("/api/orders/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        String etag = first.getHeader("ETag");
+        String lastModified = first.getHeader("Last-Modified");
+        assertThat(etag).isEqualTo("W/\"" + id + "-0\"");
+        assertThat(lastModified).isNotNull();
+
+        mockMvc.perform(get("/api/orders/" + id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/orders/" + id).header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/orders/" + id + "/status").param("status", "PROCESSING"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/orders/" + id).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"" + id + "-1\""))
+                .andExpect(jsonPath("$.status").value("PROCESSING"))
+                .andExpect(jsonPath("$.updatedAt").exists());
+    }
+
+    @Test
+    @DisplayName("Unknown orders stay 404 for conditional requests")
+    void testConditionalGetOfMissingOrder() throws Exception {
+        mockMvc.perform(get("/api/orders/999999").header("If-None-Match", "\"999999-0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("A page's ETag changes when an order on it changes")
+    void testPageRevalidation() throws Exception {
+        long id = create(List.of(new OrderItemDTO("Mouse", 2, 25)));
+        create(List.of(new OrderItemDTO("Desk", 1, 300)));
+
+        String etag = mockMvc.perform(get("/api/orders").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.etag").doesNotExist())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotNull();
+
+        mockMvc.perform(get("/api/orders").param("limit", "10").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        // a different page shape is a different representation
+        mockMvc.perform(get("/api/orders").param("limit", "10").param("includeItems", "false")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/orders/" + id + "/cancel")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/orders").param("limit", "10").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].status").value("CANCELED"));
+    }
+
+    private long create(List<OrderItemDTO> items) throws Exception {
+        String body = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
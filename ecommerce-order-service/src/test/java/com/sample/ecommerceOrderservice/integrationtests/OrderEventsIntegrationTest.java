@@ -0,0 +1,205 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.OrderEventEntity;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.JobLeaseRepository;
+import com.sample.ecommerceOrderservice.repository.OrderEventRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import com.sample.ecommerceOrderservice.service.OrderEventDispatcher;
+import com.sample.ecommerceOrderservice.service.OrderPromotionJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox rows are written with each status change and reach SSE clients over real HTTP,
+ * including a resume with Last-Event-ID.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderEventsIntegrationTest {
+
+    @LocalServerPort private int port;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderEventRepository eventRepository;
+    @Autowired private JobLeaseRepository leaseRepository;
+    @Autowired private OrderPromotionJob job;
+    @Autowired private OrderEventDispatcher dispatcher;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ExecutorService readers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void cleanUp() {
+        readers.shutdownNow();
+        orderRepository.deleteAll();
+        leaseRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A subscriber for one order gets its status changes, and resumes after Last-Event-ID")
+    void testStreamAndResume() throws Exception {
+        long id = create();
+        long other = create();
+
+        EventStream stream = open("/api/orders/events?orderId=" + id, null);
+        send("PUT", "/api/orders/" + other + "/status?status=PROCESSING");
+        send("PUT", "/api/orders/" + id + "/status?status=PROCESSING");
+        send("PUT", "/api/orders/" + id + "/status?status=SHIPPED");
+
+        List<SseEvent> events = stream.take(2);
+        stream.close();
+        assertThat(events).extracting(e -> e.data().get("orderId").asLong()).containsOnly(id);
+        assertThat(events).extracting(e -> e.data().get("toStatus").asText()).containsExactly("PROCESSING", "SHIPPED");
+        assertThat(events.get(0).name()).isEqualTo("status");
+        assertThat(Long.parseLong(events.get(1).id())).isGreaterThan(Long.parseLong(events.get(0).id()));
+
+        // missed while disconnected
+        send("PUT", "/api/orders/" + id + "/status?status=DELIVERED");
+        dispatcher.dispatch();
+
+        EventStream resumed = open("/api/orders/events?orderId=" + id, events.get(0).id());
+        List<SseEvent> replayed = resumed.take(2);
+        resumed.close();
+        assertThat(replayed).extracting(e -> e.data().get("toStatus").asText()).containsExactly("SHIPPED", "DELIVERED");
+        assertThat(replayed.get(0).id()).isEqualTo(events.get(1).id());
+    }
+
+    @Test
+    @DisplayName("Promotion writes one outbox row per promoted order, delivered to status subscribers")
+    void testPromotionEvents() throws Exception {
+        long first = create();
+        long second = create();
+
+        EventStream stream = open("/api/orders/events?status=PROCESSING", null);
+        job.autoUpdatePendingOrders();
+
+        List<SseEvent> events = stream.take(2);
+        stream.close();
+        assertThat(events).extracting(e -> e.data().get("orderId").asLong()).containsExactlyInAnyOrder(first, second);
+        assertThat(events).extracting(e -> e.data().get("fromStatus").asText()).containsOnly("PENDING");
+
+        dispatcher.dispatch();
+        List<OrderEventEntity> rows = eventRepository.findAll().stream()
+                .filter(e -> e.getOrderId() == first || e.getOrderId() == second).toList();
+        assertThat(rows).hasSize(2).allSatisfy(e -> {
+            assertThat(e.getSeq()).isNotNull();
+            assertThat(e.getToStatus()).isEqualTo(OrderStatus.PROCESSING);
+        });
+    }
+
+    @Test
+    @DisplayName("A rejected transition writes no event")
+    void testNoEventForRejectedTransition() throws Exception {
+        long id = create();
+        long before = eventRepository.count();
+
+        assertThat(send("PUT", "/api/orders/" + id + "/status?status=SHIPPED").statusCode()).isEqualTo(409);
+
+        assertThat(eventRepository.count()).isEqualTo(before);
+    }
+
+    private long create() throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(List.of(new OrderItemDTO("Laptop", 1, 1200)));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/orders"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(201);
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private HttpResponse<String> send(String method, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).method(method, HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Opens the stream and waits for the subscription comment, so later changes are not missed */
+    private EventStream open(String path, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        EventStream stream = new EventStream(response.body());
+        readers.submit(stream::read);
+        assertThat(stream.subscribed.await(5, TimeUnit.SECONDS)).isTrue();
+        return stream;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record SseEvent(String id, String name, JsonNode data) {}
+
+    private final class EventStream {
+
+        final InputStream body;
+        final CountDownLatch subscribed = new CountDownLatch(1);
+        final BlockingQueue<SseEvent> events = new LinkedBlockingQueue<>();
+
+        EventStream(InputStream body) {
+            this.body = body;
+        }
+
+        void read() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                String id = null, name = null, data = null, line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(":subscribed")) {
+                        subscribed.countDown();
+                    } else if (line.startsWith("id:")) {
+                        id = line.substring(3);
+                    } else if (line.startsWith("event:")) {
+                        name = line.substring(6);
+                    } else if (line.startsWith("data:")) {
+                        data = line.substring(5);
+                    } else if (line.isEmpty() && data != null) {
+                        events.add(new SseEvent(id, name, objectMapper.readTree(data)));
+                        id = name = data = null;
+                    }
+                }
+            } catch (Exception e) {
+                // closed by the test
+            }
+        }
+
+        List<SseEvent> take(int count) throws InterruptedException {
+            List<SseEvent> taken = new ArrayList<>();
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (taken.size() < count) {
+                SseEvent event = events.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                assertThat(event).as("event %d of %d", taken.size() + 1, count).isNotNull();
+                taken.add(event);
+            }
+            return taken;
+        }
+
+        void close() throws Exception {
+            body.close();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.service.OrderArchiver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Exports seeded orders (one per second of 2026-01-01, statuses in turn, two items each but
+ * the last) and checks every order arrives once, in (createdAt, id) order, with its items.
+ * Uses its own database so the seeded rows stay out of the other tests' contexts.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export",
+        "orders.events.poll-interval-ms=3600000",
+        "orders.archive.pause-ms=0",
+        // several round trips per export
+        "orders.export.fetch-size=100"
+})
+@AutoConfigureMockMvc
+class OrderExportIntegrationTest {
+
+    private static final int ORDERS = 3000;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private OrderArchiver archiver;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("""
+                insert into orders (id, status, created_at, updated_at, total_price, item_count, version)
+                select x, case mod(x, 5) when 0 then 'PENDING' when 1 then 'PROCESSING' when 2 then 'SHIPPED'
+                                         when 3 then 'DELIVERED' else 'CANCELED' end,
+                       dateadd('SECOND', x, timestamp '2026-01-01 00:00:00'), null, 10.0 * x, 2, 0
+                from system_range(1, ?)""", ORDERS);
+        jdbc.update("""
+                insert into order_items (id, order_id, name, quantity, price)
+                select x, (x + 1) / 2, 'Item ' || x, 1, 5.0 from system_range(1, ?)""", 2 * (ORDERS - 1));
+        jdbc.update("update order_items set name = 'Desk, \"large\"' where id = 1");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("delete from order_items");
+        jdbc.update("delete from orders");
+        jdbc.update("delete from order_items_archive");
+        jdbc.update("delete from orders_archive");
+        jdbc.update("delete from job_leases");
+    }
+
+    @Test
+    @DisplayName("NDJSON export has every order once, in order, with its items")
+    void testNdjsonExport() throws Exception {
+        String body = mockMvc.perform(get("/api/orders/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> orders = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            orders.add(objectMapper.readTree(line));
+        }
+        assertThat(orders).hasSize(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            assertThat(orders.get(i).get("id").asLong()).isEqualTo(i + 1);
+        }
+        assertThat(orders.get(0).get("items")).hasSize(2);
+        assertThat(orders.get(0).get("items").get(0).get("name").asText()).isEqualTo("Desk, \"large\"");
+        assertThat(orders.get(ORDERS - 1).get("items")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Status and createdAt filters narrow the export")
+    void testFilteredExport() throws Exception {
+        String body = mockMvc.perform(get("/api/orders/export")
+                        .param("status", "PENDING", "SHIPPED")
+                        .param("createdFrom", "2026-01-01T00:00:01Z")
+                        .param("createdTo", "2026-01-01T00:01:41Z"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // orders 1..100, of which every fifth is PENDING and every fifth SHIPPED
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(40);
+        for (String line : lines) {
+            JsonNode order = objectMapper.readTree(line);
+            assertThat(order.get("status").asText()).isIn("PENDING", "SHIPPED");
+            assertThat(order.get("id").asLong()).isBetween(1L, 100L);
+        }
+    }
+
+    @Test
+    @DisplayName("CSV export has one line per item and quotes item names where needed")
+    void testCsvExport() throws Exception {
+        String body = mockMvc.perform(get("/api/orders/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"orders.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines[0]).isEqualTo(
+                "order_id,status,created_at,updated_at,total_price,item_count,version,item_name,quantity,price");
+        assertThat(lines).hasSize(1 + 2 * (ORDERS - 1) + 1);
+        assertThat(lines).anyMatch(line -> line.startsWith("1,PROCESSING,2026-01-01T00:00:01Z,")
+                && line.endsWith(",\"Desk, \"\"large\"\"\",1,5.0"));
+        assertThat(lines[lines.length - 1]).startsWith(ORDERS + ",PENDING,").endsWith(",0,,,");
+    }
+
+    @Test
+    @DisplayName("Archived orders are exported in place, with their items")
+    void testExportIncludesArchivedOrders() throws Exception {
+        // every DELIVERED and CANCELED order is months old
+        assertThat(archiver.archive()).isEqualTo(ORDERS * 2 / 5);
+        assertThat(jdbc.queryForObject("select count(*) from orders", Integer.class)).isEqualTo(ORDERS * 3 / 5);
+
+        String ndjson = mockMvc.perform(get("/api/orders/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] orders = ndjson.split("\n");
+        assertThat(orders).hasSize(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            assertThat(objectMapper.readTree(orders[i]).get("id").asLong()).isEqualTo(i + 1);
+        }
+        JsonNode delivered = objectMapper.readTree(orders[2]);
+        assertThat(delivered.get("status").asText()).isEqualTo("DELIVERED");
+        assertThat(delivered.get("items")).hasSize(2);
+
+        String csv = mockMvc.perform(get("/api/orders/export").param("format", "csv").param("status", "CANCELED"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = csv.split("\n");
+        assertThat(lines).hasSize(1 + 2 * ORDERS / 5);
+        assertThat(List.of(lines[1], lines[2])).allMatch(line -> line.startsWith("4,CANCELED,2026-01-01T00:00:04Z,"))
+                .anyMatch(line -> line.endsWith(",Item 7,1,5.0"))
+                .anyMatch(line -> line.endsWith(",Item 8,1,5.0"));
+    }
+
+    @Test
+    @DisplayName("An unknown format is rejected before anything is written")
+    void testUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/orders/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
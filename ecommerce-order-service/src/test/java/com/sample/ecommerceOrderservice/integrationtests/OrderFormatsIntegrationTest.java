@@ -0,0 +1,129 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Content negotiation and gzip over real HTTP: compression happens in Tomcat, which
+ * MockMvc bypasses. java.net.http does not decompress, so the raw encoding is visible.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderFormatsIntegrationTest {
+
+    private static final String CBOR = "application/cbor";
+    private static final String SMILE = "application/x-jackson-smile";
+
+    @LocalServerPort private int port;
+    @Autowired private ObjectMapper json;
+    @Autowired private OrderRepository orderRepository;
+
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("CBOR in and out, with dates as epoch millis")
+    void testCbor() throws Exception {
+        byte[] body = cbor.writeValueAsBytes(List.of(new OrderItemDTO("Laptop", 1, 1200)));
+        HttpResponse<byte[]> created = send(HttpRequest.newBuilder(uri("/api/orders"))
+                .header("Content-Type", CBOR)
+                .header("Accept", CBOR)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+
+        assertThat(created.statusCode()).isEqualTo(201);
+        assertThat(created.headers().firstValue("Content-Type")).hasValue(CBOR);
+        JsonNode order = cbor.readTree(created.body());
+        assertThat(order.get("items").get(0).get("name").asText()).isEqualTo("Laptop");
+        assertThat(order.get("createdAt").isNumber()).isTrue();
+
+        HttpResponse<byte[]> fetched = send(get("/api/orders/" + order.get("id").asLong()).header("Accept", CBOR));
+        assertThat(cbor.readTree(fetched.body()).get("totalPrice").asDouble()).isEqualTo(1200.0);
+        assertThat(fetched.headers().allValues("Vary")).anyMatch(v -> v.toLowerCase().contains("accept"));
+    }
+
+    @Test
+    @DisplayName("Smile pages are smaller than JSON and decode to the same orders")
+    void testSmilePage() throws Exception {
+        createOrders(20);
+
+        HttpResponse<byte[]> asJson = send(get("/api/orders?limit=20"));
+        HttpResponse<byte[]> asSmile = send(get("/api/orders?limit=20").header("Accept", SMILE));
+
+        assertThat(asJson.headers().firstValue("Content-Type")).hasValueSatisfying(t -> assertThat(t).startsWith("application/json"));
+        assertThat(asSmile.headers().firstValue("Content-Type")).hasValue(SMILE);
+        assertThat(smile.readTree(asSmile.body()).get("items").size()).isEqualTo(20);
+        assertThat(asSmile.body().length).isLessThan(asJson.body().length);
+    }
+
+    @Test
+    @DisplayName("Large responses are gzipped on request, small ones are not")
+    void testCompressionThreshold() throws Exception {
+        List<Long> ids = createOrders(40);
+
+        HttpResponse<byte[]> page = send(get("/api/orders?limit=40").header("Accept-Encoding", "gzip"));
+        assertThat(page.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page.body()))) {
+            assertThat(json.readTree(in).get("items").size()).isEqualTo(40);
+        }
+
+        HttpResponse<byte[]> single = send(get("/api/orders/" + ids.get(0)).header("Accept-Encoding", "gzip"));
+        assertThat(single.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(json.readTree(single.body()).get("id").asLong()).isEqualTo(ids.get(0));
+
+        HttpResponse<byte[]> identity = send(get("/api/orders?limit=40"));
+        assertThat(identity.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    private List<Long> createOrders(int count) throws Exception {
+        List<List<OrderItemDTO>> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(List.of(new OrderItemDTO("Item " + i, 1 + i % 3, 10.5 + i),
+                    new OrderItemDTO("Accessory " + i, 1, 4.25)));
+        }
+        HttpResponse<byte[]> response = send(HttpRequest.newBuilder(uri("/api/orders/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(orders))));
+        assertThat(response.statusCode()).isEqualTo(201);
+        List<Long> ids = new ArrayList<>();
+        json.readTree(response.body()).forEach(result -> ids.add(result.get("order").get("id").asLong()));
+        return ids;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
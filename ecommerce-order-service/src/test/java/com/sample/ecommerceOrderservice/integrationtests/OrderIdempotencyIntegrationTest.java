@@ -0,0 +1,133 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.repository.IdempotencyKeyRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Idempotency-Key on POST /api/orders. Not transactional: concurrent requests must see
+ * each other's commits.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderIdempotencyIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private IdempotencyKeyRepository keyRepository;
+
+    private final List<OrderItemDTO> sampleItems = List.of(
+            new OrderItemDTO("Laptop", 1, 1200),
+            new OrderItemDTO("Mouse", 2, 25));
+
+    @AfterEach
+    void cleanUp() {
+        keyRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A retried request gets the original order back and creates nothing")
+    void testRetryReplaysOriginalOrder() throws Exception {
+        long first = create("retry-1", sampleItems);
+
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleItems)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(first))
+                .andExpect(jsonPath("$.items.length()").value(2));
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(keyRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reusing a key with a different body is refused with 422")
+    void testKeyReuseWithDifferentBody() throws Exception {
+        create("reuse-1", sampleItems);
+
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "reuse-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new OrderItemDTO("Phone", 1, 800)))))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Concurrent requests with one key create a single order")
+    void testConcurrentRequestsCollapse() throws Exception {
+        int clients = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return create("storm-1", sampleItems);
+                }));
+            }
+            start.countDown();
+
+            Set<Long> ids = ConcurrentHashMap.newKeySet();
+            for (Future<Long> result : results) {
+                ids.add(result.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(ids).hasSize(1);
+            assertThat(orderRepository.count()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Different keys create different orders")
+    void testDistinctKeys() throws Exception {
+        Set<Long> ids = List.of("a", "b", "c").stream()
+                .map(key -> {
+                    try {
+                        return create(key, sampleItems);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toSet());
+
+        assertThat(ids).hasSize(3);
+    }
+
+    private long create(String key, List<OrderItemDTO> items) throws Exception {
+        String body = mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
@@ -0,0 +1,138 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * POST /api/orders with asynchronous ingestion. Not transactional: the writer thread
+ * commits on its own, so the test has to see committed rows.
+ */
+@SpringBootTest(properties = {
+        "orders.ingest.async=true",
+        "orders.ingest.max-wait-ms=50",
+        "spring.datasource.url=jdbc:h2:mem:ingestdb"
+})
+@AutoConfigureMockMvc
+class OrderIngestIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private OrderRepository orderRepository;
+
+    private final List<OrderItemDTO> sampleItems = List.of(
+            new OrderItemDTO("Laptop", 1, 1200),
+            new OrderItemDTO("Mouse", 2, 25));
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Accept with 202 and an id, then write the order in the background")
+    void testAcceptedThenWritten() throws Exception {
+        JsonNode accepted = objectMapper.readTree(mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleItems)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.totalPrice").value(1250.0))
+                .andReturn().getResponse().getContentAsString());
+        long id = accepted.get("id").asLong();
+
+        awaitWritten(id);
+
+        mockMvc.perform(get("/api/orders/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.totalPrice").value(1250.0))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    @Test
+    @DisplayName("durable=true answers 201 only after the order is stored")
+    void testDurableAcknowledgement() throws Exception {
+        String body = mockMvc.perform(post("/api/orders").param("durable", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleItems)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(body).get("id").asLong();
+
+        assertThat(orderRepository.existsById(id)).isTrue();
+        mockMvc.perform(get("/api/orders/ingest/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("WRITTEN"));
+    }
+
+    @Test
+    @DisplayName("Queued ids never collide with ids Hibernate assigns")
+    void testIdsShareSequenceWithHibernate() throws Exception {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 60; i++) {
+            String body = mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(sampleItems)))
+                    .andExpect(status().isAccepted())
+                    .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readTree(body).get("id").asLong());
+        }
+        // the batch endpoint still persists through Hibernate's pooled sequence optimizer
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleItems, sampleItems))))
+                .andExpect(status().isCreated());
+        for (Long id : ids) {
+            awaitWritten(id);
+        }
+
+        assertThat(ids).hasSize(60);
+        assertThat(orderRepository.count()).isEqualTo(62);
+    }
+
+    @Test
+    @DisplayName("Reject invalid orders before queueing; unknown ids have no ingest status")
+    void testRejectsInvalidOrder() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Order has no items"));
+
+        mockMvc.perform(get("/api/orders/ingest/987654"))
+                .andExpect(status().isNotFound());
+    }
+
+    private void awaitWritten(long id) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String body = mockMvc.perform(get("/api/orders/ingest/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            String state = objectMapper.readTree(body).get("state").asText();
+            if (state.equals("WRITTEN")) {
+                return;
+            }
+            assertThat(state).isEqualTo("QUEUED");
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Order " + id + " was not written in time");
+    }
+}
@@ -1,9 +1,14 @@
 package com.sample.ecommerceOrderservice.integrationtests;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.BulkStatusUpdate;
 import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
 import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.OrderEventRepository;
 import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -15,13 +20,20 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * Integration test verifying real persistence and REST behavior
  */
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                // statement counts below are global; keep the outbox poller out of them
+                "orders.events.poll-interval-ms=3600000"
+        })
 @AutoConfigureMockMvc
 @Transactional
 class OrderIntegrationTest {
@@ -29,6 +41,8 @@ class OrderIntegrationTest {
     @Autowired private MockMvc mockMvc;
     @Autowired private ObjectMapper objectMapper;
     @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderEventRepository eventRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
 
     private List<OrderItemDTO> sampleItems;
 
@@ -56,6 +70,28 @@ class OrderIntegrationTest {
         var orders = orderRepository.findAll();
         assertThat(orders).hasSize(1);
         assertThat(orders.get(0).getItems()).hasSize(2);
+        assertThat(orders.get(0).getTotalPrice()).isEqualTo(1250.0);
+        assertThat(orders.get(0).getItemCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Create orders in bulk and report each outcome")
+    void testCreateOrdersBatch() throws Exception {
+        var orders = List.of(sampleItems, List.of(), sampleItems);
+
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orders)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$[0].order.items.length()").value(2))
+                .andExpect(jsonPath("$[1].outcome").value("REJECTED"))
+                .andExpect(jsonPath("$[2].outcome").value("CREATED"));
+
+        var persisted = orderRepository.findAll();
+        assertThat(persisted).hasSize(2);
+        assertThat(persisted).allSatisfy(o -> assertThat(o.getItems()).hasSize(2));
     }
 
     @Test
@@ -75,6 +111,75 @@ class OrderIntegrationTest {
                 .andExpect(jsonPath("$.status").value("PENDING"));
     }
 
+    @Test
+    @DisplayName("Page through orders with a keyset cursor")
+    void testListOrders_KeysetPagination() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(sampleItems)))
+                    .andExpect(status().isCreated());
+        }
+
+        String firstPage = mockMvc.perform(get("/api/orders").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/orders").param("limit", "2").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/orders").param("all", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    @DisplayName("Listing and lookup run a fixed number of statements regardless of order count")
+    void testReadPath_NoNPlusOne() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(sampleItems)))
+                    .andExpect(status().isCreated());
+        }
+        Long id = orderRepository.findAll().get(0).getId();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        stats.clear();
+        mockMvc.perform(get("/api/orders").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(5))
+                .andExpect(jsonPath("$.items[0].totalPrice").value(1250.0));
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isZero();
+
+        stats.clear();
+        mockMvc.perform(get("/api/orders").param("includeItems", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].items").doesNotExist())
+                .andExpect(jsonPath("$.items[0].itemCount").value(2))
+                .andExpect(jsonPath("$.items[0].totalPrice").value(1250.0));
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+
+        stats.clear();
+        mockMvc.perform(get("/api/orders").param("all", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+
+        stats.clear();
+        mockMvc.perform(get("/api/orders/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
     @Test
     @DisplayName("Update status and verify DB reflects change")
     void testUpdateOrderStatus() throws Exception {
@@ -86,13 +191,112 @@ class OrderIntegrationTest {
 
         Long id = orderRepository.findAll().get(0).getId();
 
-        // Update to SHIPPED
+        // PENDING cannot skip straight to SHIPPED
+        mockMvc.perform(put("/api/orders/" + id + "/status")
+                        .param("status", "SHIPPED"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Cannot change order from PENDING to SHIPPED"));
+
+        // Update to PROCESSING, then SHIPPED
+        mockMvc.perform(put("/api/orders/" + id + "/status")
+                        .param("status", "PROCESSING"))
+                .andExpect(status().isOk());
         mockMvc.perform(put("/api/orders/" + id + "/status")
                         .param("status", "SHIPPED"))
                 .andExpect(status().isOk());
 
         var updatedOrder = orderRepository.findById(id).orElseThrow();
         assertThat(updatedOrder.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(updatedOrder.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Reject a status change against a stale version")
+    void testUpdateOrderStatus_StaleVersion() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleItems)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version").value(0));
+        Long id = orderRepository.findAll().get(0).getId();
+
+        mockMvc.perform(put("/api/orders/" + id + "/status")
+                        .param("status", "PROCESSING").param("version", "0"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/orders/" + id + "/status")
+                        .param("status", "SHIPPED").param("version", "0"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(orderRepository.findById(id).orElseThrow().getStatus()).isEqualTo(OrderStatus.PROCESSING);
+    }
+
+    @Test
+    @DisplayName("Bulk status change runs set-based and reports each order")
+    void testBulkStatusUpdate() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(sampleItems)))
+                    .andExpect(status().isCreated());
+        }
+        List<Long> ids = orderRepository.findAll().stream().map(o -> o.getId()).sorted().toList();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // lock + outbox insert + update, however many orders
+        stats.clear();
+        mockMvc.perform(put("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkStatusUpdate(
+                                ids.subList(0, 4), OrderStatus.PROCESSING, null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[*].outcome", everyItem(is("APPLIED"))));
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+
+        mockMvc.perform(put("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkStatusUpdate(null, null, List.of(
+                                new BulkStatusUpdate.Transition(ids.get(0), OrderStatus.SHIPPED, 1L),
+                                new BulkStatusUpdate.Transition(ids.get(1), OrderStatus.SHIPPED, 0L),
+                                new BulkStatusUpdate.Transition(ids.get(2), OrderStatus.CANCELED, null),
+                                new BulkStatusUpdate.Transition(ids.get(4), OrderStatus.CANCELED, null),
+                                new BulkStatusUpdate.Transition(-1L, OrderStatus.SHIPPED, null))))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$[0].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$[0].status").value("SHIPPED"))
+                .andExpect(jsonPath("$[1].outcome").value("CONFLICT"))
+                .andExpect(jsonPath("$[2].outcome").value("ILLEGAL_TRANSITION"))
+                .andExpect(jsonPath("$[2].status").value("PROCESSING"))
+                .andExpect(jsonPath("$[3].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$[4].id").value(-1))
+                .andExpect(jsonPath("$[4].outcome").value("NOT_FOUND"));
+
+        assertThat(orderRepository.findById(ids.get(0)).orElseThrow().getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(orderRepository.findById(ids.get(1)).orElseThrow().getStatus()).isEqualTo(OrderStatus.PROCESSING);
+        assertThat(orderRepository.findById(ids.get(4)).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELED);
+        assertThat(eventRepository.findAll()).filteredOn(e -> ids.contains(e.getOrderId())).hasSize(6);
+
+        mockMvc.perform(put("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1, 1], \"status\": \"SHIPPED\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Cached order is not served stale after a status change")
+    void testCachedOrderInvalidatedOnUpdate() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleItems)))
+                .andExpect(status().isCreated());
+        Long id = orderRepository.findAll().get(0).getId();
+
+        mockMvc.perform(get("/api/orders/" + id)).andExpect(jsonPath("$.status").value("PENDING"));
+        mockMvc.perform(get("/api/orders/" + id)).andExpect(jsonPath("$.status").value("PENDING"));
+
+        mockMvc.perform(post("/api/orders/" + id + "/cancel")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/orders/" + id)).andExpect(jsonPath("$.status").value("CANCELED"));
     }
 
     @Test
@@ -130,7 +334,10 @@ class OrderIntegrationTest {
 
         mockMvc.perform(post("/api/orders/" + order.getId() + "/cancel"))
                 .andExpect(status().isConflict())
-                .andExpect(content().string("Cannot cancel this order (not pending or not found)"));
+                .andExpect(content().string("Cannot cancel this order (status is PROCESSING)"));
+
+        mockMvc.perform(post("/api/orders/" + (order.getId() + 1000) + "/cancel"))
+                .andExpect(status().isNotFound());
     }
 
     @Test
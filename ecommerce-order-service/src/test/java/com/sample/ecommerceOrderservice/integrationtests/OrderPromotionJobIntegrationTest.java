@@ -0,0 +1,81 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.sample.ecommerceOrderservice.entity.OrderEntity;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.JobLeaseRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import com.sample.ecommerceOrderservice.service.JobLeases;
+import com.sample.ecommerceOrderservice.service.OrderPromotionJob;
+import com.sample.ecommerceOrderservice.service.PromotionReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the promotion job against the real database. Not transactional, because the
+ * job commits chunk by chunk and must see committed rows.
+ */
+@SpringBootTest
+class OrderPromotionJobIntegrationTest {
+
+    @Autowired private OrderPromotionJob job;
+    @Autowired private JobLeases leases;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private JobLeaseRepository leaseRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        leaseRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Promote all PENDING orders with bulk updates and leave others alone")
+    void testPromotesPendingOrders() {
+        OrderEntity pending = orderRepository.save(new OrderEntity());
+        OrderEntity shipped = new OrderEntity();
+        shipped.setStatus(OrderStatus.SHIPPED);
+        shipped = orderRepository.save(shipped);
+
+        PromotionReport report = job.autoUpdatePendingOrders();
+
+        assertThat(report.rowsPromoted()).isEqualTo(1);
+        assertThat(report.chunksProcessed()).isEqualTo(1);
+        assertThat(orderRepository.findById(pending.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.PROCESSING);
+        assertThat(orderRepository.findById(shipped.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(leaseRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Skip chunks leased by another instance")
+    void testSkipsChunkHeldByAnotherInstance() {
+        OrderEntity pending = orderRepository.save(new OrderEntity());
+        long bucket = pending.getId() / 500;
+        transactionTemplate.executeWithoutResult(status -> leaseRepository.insert(
+                "order-promotion:" + bucket, "other-instance", new Date(System.currentTimeMillis() + 60000)));
+
+        PromotionReport report = job.autoUpdatePendingOrders();
+
+        assertThat(report.rowsPromoted()).isZero();
+        assertThat(report.chunksSkipped()).isEqualTo(1);
+        assertThat(orderRepository.findById(pending.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("Take over a lease once it has expired")
+    void testTakesOverExpiredLease() {
+        transactionTemplate.executeWithoutResult(status -> leaseRepository.insert(
+                "some-chunk", "crashed-instance", new Date(System.currentTimeMillis() - 1000)));
+
+        assertThat(leases.tryAcquire("some-chunk", 60000)).isTrue();
+        assertThat(leaseRepository.findById("some-chunk").orElseThrow().getOwner()).isEqualTo(leases.owner());
+    }
+}
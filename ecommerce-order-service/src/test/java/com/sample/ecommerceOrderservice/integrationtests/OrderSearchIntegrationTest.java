@@ -0,0 +1,141 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/** GET /api/orders/search combines its filters, sorts and pages with a cursor bound to the sort */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderSearchIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private OrderRepository orderRepository;
+
+    private JsonNode laptop;    // PENDING, 1200
+    private JsonNode mice;      // CANCELED, 50
+    private JsonNode keyboard;  // PROCESSING, 90
+    private JsonNode monitor;   // PENDING, 300
+
+    @BeforeEach
+    void createOrders() throws Exception {
+        laptop = create(new OrderItemDTO("Laptop", 1, 1200));
+        mice = create(new OrderItemDTO("Mouse", 2, 25));
+        keyboard = create(new OrderItemDTO("Keyboard", 1, 80), new OrderItemDTO("Mousepad", 1, 10));
+        monitor = create(new OrderItemDTO("Monitor", 1, 300));
+        mockMvc.perform(post("/api/orders/" + mice.get("id").asLong() + "/cancel")).andExpect(status().isOk());
+        mockMvc.perform(put("/api/orders/" + keyboard.get("id").asLong() + "/status").param("status", "PROCESSING"))
+                .andExpect(status().isOk());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Filters combine, and unset ones match everything")
+    void testFilters() throws Exception {
+        assertThat(ids(search())).containsExactly(id(laptop), id(mice), id(keyboard), id(monitor));
+        assertThat(ids(search().param("status", "CANCELED", "PROCESSING")))
+                .containsExactly(id(mice), id(keyboard));
+        assertThat(ids(search().param("status", "PENDING"))).containsExactly(id(laptop), id(monitor));
+        assertThat(ids(search().param("minTotal", "90").param("maxTotal", "300")))
+                .containsExactly(id(keyboard), id(monitor));
+        assertThat(ids(search().param("itemName", "Mou"))).containsExactly(id(mice), id(keyboard));
+        assertThat(ids(search().param("itemName", "Mou").param("minTotal", "60"))).containsExactly(id(keyboard));
+        assertThat(ids(search().param("itemName", "Mouse").param("status", "PENDING"))).isEmpty();
+        assertThat(ids(search()
+                .param("createdFrom", keyboard.get("createdAt").asText())
+                .param("createdTo", monitor.get("createdAt").asText())))
+                .containsExactly(id(keyboard));
+    }
+
+    @Test
+    @DisplayName("Pages by total descending follow nextCursor to the last page")
+    void testSortedPages() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        List<Double> totals = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = search().param("sort", "totalPrice,desc").param("limit", "3");
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            JsonNode page = page(request);
+            page.get("items").forEach(order -> {
+                seen.add(order.get("id").asLong());
+                totals.add(order.get("totalPrice").asDouble());
+            });
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(id(laptop), id(monitor), id(keyboard), id(mice));
+        assertThat(totals).containsExactly(1200.0, 300.0, 90.0, 50.0);
+    }
+
+    @Test
+    @DisplayName("Unknown sorts, inverted ranges and cursors of another sort are rejected with 400")
+    void testInvalidSearches() throws Exception {
+        mockMvc.perform(search().param("sort", "status")).andExpect(status().isBadRequest());
+        mockMvc.perform(search().param("sort", "totalPrice,sideways")).andExpect(status().isBadRequest());
+        mockMvc.perform(search().param("minTotal", "100").param("maxTotal", "10")).andExpect(status().isBadRequest());
+        mockMvc.perform(search().param("after", "bogus")).andExpect(status().isBadRequest());
+
+        String byCreation = page(search().param("limit", "1")).get("nextCursor").asText();
+        mockMvc.perform(search().param("sort", "totalPrice").param("after", byCreation))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(search().param("sort", "createdAt,desc").param("after", byCreation))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletRequestBuilder search() {
+        return get("/api/orders/search");
+    }
+
+    private JsonNode page(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private List<Long> ids(MockHttpServletRequestBuilder request) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        page(request).get("items").forEach(order -> ids.add(order.get("id").asLong()));
+        return ids;
+    }
+
+    private static long id(JsonNode order) {
+        return order.get("id").asLong();
+    }
+
+    private JsonNode create(OrderItemDTO... items) throws Exception {
+        String body = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(items))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Thread.sleep(5); // distinct createdAt per order
+        return objectMapper.readTree(body);
+    }
+}
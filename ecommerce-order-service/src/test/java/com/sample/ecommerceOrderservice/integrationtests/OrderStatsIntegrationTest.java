@@ -0,0 +1,90 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.JobLeaseRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import com.sample.ecommerceOrderservice.service.OrderPromotionJob;
+import com.sample.ecommerceOrderservice.service.OrderStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The stats counters follow committed creates, cancels and promotions, and agree
+ * with a rebuild from the database. Not transactional: counters move on commit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderStatsIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private JobLeaseRepository leaseRepository;
+    @Autowired private OrderPromotionJob job;
+    @Autowired private OrderStats orderStats;
+
+    @BeforeEach
+    void reset() {
+        orderStats.reconcile();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        leaseRepository.deleteAll();
+        orderStats.reconcile();
+    }
+
+    @Test
+    @DisplayName("Counters follow create, cancel and promotion, and match a rebuild")
+    void testCountersFollowWrites() throws Exception {
+        long first = create(List.of(new OrderItemDTO("Laptop", 1, 1200)));
+        create(List.of(new OrderItemDTO("Mouse", 2, 25)));
+        create(List.of(new OrderItemDTO("Desk", 1, 300)));
+        mockMvc.perform(post("/api/orders/" + first + "/cancel")).andExpect(status().isOk());
+        job.autoUpdatePendingOrders();
+
+        OrderStats.Snapshot live = orderStats.snapshot();
+        assertThat(live.counts().get(OrderStatus.CANCELED)).isEqualTo(1);
+        assertThat(live.revenue().get(OrderStatus.CANCELED)).isEqualTo(1200.0);
+        assertThat(live.counts().get(OrderStatus.PROCESSING)).isEqualTo(2);
+        assertThat(live.revenue().get(OrderStatus.PROCESSING)).isEqualTo(350.0);
+        assertThat(live.counts().get(OrderStatus.PENDING)).isZero();
+        assertThat(live.totalOrders()).isEqualTo(3);
+        assertThat(live.totalRevenue()).isEqualTo(350.0);
+
+        mockMvc.perform(get("/api/orders/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.PROCESSING").value(2))
+                .andExpect(jsonPath("$.totalRevenue").value(350.0));
+
+        orderStats.reconcile();
+        OrderStats.Snapshot rebuilt = orderStats.snapshot();
+        assertThat(rebuilt.counts()).isEqualTo(live.counts());
+        assertThat(rebuilt.revenue()).isEqualTo(live.revenue());
+    }
+
+    private long create(List<OrderItemDTO> items) throws Exception {
+        String body = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
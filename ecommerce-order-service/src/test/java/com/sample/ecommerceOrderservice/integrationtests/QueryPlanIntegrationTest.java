@@ -0,0 +1,285 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.sample.ecommerceOrderservice.config.StatementCounter;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderRepository;
+import com.sample.ecommerceOrderservice.repository.IdempotencyKeyRepository;
+import com.sample.ecommerceOrderservice.repository.JobLeaseRepository;
+import com.sample.ecommerceOrderservice.repository.OrderEventRepository;
+import com.sample.ecommerceOrderservice.repository.OrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import com.sample.ecommerceOrderservice.repository.OrderSearch;
+import com.sample.ecommerceOrderservice.repository.OrderSearch.SortField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every custom repository query against the migrated schema and checks H2's plan for
+ * the SQL Hibernate generated: each must be answered through the index V2__index_access_paths
+ * created for it, so a dropped index or a rewritten query that can no longer use it fails
+ * the build. The few queries that read every row by design are listed as scans.
+ *
+ * Uses its own database: the seeded rows must not reach the other tests' contexts, whose
+ * outbox pollers would sequence them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplans",
+        "orders.events.poll-interval-ms=3600000"
+})
+class QueryPlanIntegrationTest {
+
+    private static final OrderStatus STATUS = OrderStatus.PENDING;
+    /** Not seeded, so the deletes and copies run without touching (or conflicting with) rows */
+    private static final List<Long> IDS = List.of(-1L, -2L);
+    private static final Date NOW = new Date();
+    private static final Pattern ACCESS_PATH = Pattern.compile("/\\* (PUBLIC\\.[^*]*)\\*/");
+
+    @Autowired private OrderRepository orders;
+    @Autowired private OrderItemRepository items;
+    @Autowired private OrderEventRepository events;
+    @Autowired private ArchivedOrderRepository archivedOrders;
+    @Autowired private ArchivedOrderItemRepository archivedItems;
+    @Autowired private IdempotencyKeyRepository idempotencyKeys;
+    @Autowired private JobLeaseRepository leases;
+    @Autowired private StatementCounter statements;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    /**
+     * Plans are cost based, and on empty tables every index costs the same: load enough rows,
+     * spread like production data, for the optimizer to choose as it would there.
+     */
+    @BeforeEach
+    void seed() {
+        jdbc.update("""
+                insert into orders (id, status, created_at, updated_at, total_price, item_count, version)
+                select x, case mod(x, 5) when 0 then 'PENDING' when 1 then 'PROCESSING' when 2 then 'SHIPPED'
+                                         when 3 then 'DELIVERED' else 'CANCELED' end,
+                       dateadd('SECOND', x, timestamp '2026-01-01 00:00:00'), null, 10.0 * x, 2, 0
+                from system_range(1, 5000)""");
+        jdbc.update("""
+                insert into order_items (id, order_id, name, quantity, price)
+                select x, (x + 1) / 2, 'Item', 1, 5.0 from system_range(1, 10000)""");
+        jdbc.update("""
+                insert into orders_archive (id, status, created_at, updated_at, total_price, item_count, version, archived_at)
+                select x, 'DELIVERED', timestamp '2025-01-01 00:00:00', null, 10.0, 2, 3, current_timestamp
+                from system_range(100001, 105000)""");
+        jdbc.update("""
+                insert into order_items_archive (id, order_id, name, quantity, price)
+                select x, 100000 + (x + 1) / 2, 'Item', 1, 5.0 from system_range(1, 10000)""");
+        jdbc.update("""
+                insert into order_events (order_id, from_status, to_status, occurred_at, seq)
+                select mod(x, 5000) + 1, 'PENDING', 'PROCESSING', dateadd('SECOND', x, timestamp '2026-01-01 00:00:00'),
+                       case when x <= 4900 then x end
+                from system_range(1, 5000)""");
+        jdbc.update("""
+                insert into idempotency_keys (idempotency_key, request_hash, response, expires_at)
+                select 'key-' || x, 'hash', '{}', dateadd('SECOND', x, timestamp '2026-01-01 00:00:00')
+                from system_range(1, 5000)""");
+        jdbc.update("""
+                insert into job_leases (lease_key, owner, expires_at)
+                select 'lease-' || x, 'owner', current_timestamp from system_range(1, 20)""");
+        jdbc.execute("analyze");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("order_items", "orders", "order_items_archive", "orders_archive",
+                "order_events", "idempotency_keys", "job_leases")) {
+            jdbc.update("delete from " + table);
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseTheirIndex() {
+        return Stream.of(
+                seeks("OrderRepository.findByStatus", "IDX_ORDERS_STATUS_ID", "STATUS = ?1",
+                        () -> orders.findByStatus(STATUS)),
+                seeks("OrderRepository.findRowById", "PRIMARY_KEY", "ID = ?1", () -> orders.findRowById(1L)),
+                reads("OrderRepository.findPageRows", "IDX_ORDERS_CREATED_AT_ID", "index sorted",
+                        () -> orders.findPageRows(Limit.of(20))),
+                seeks("OrderRepository.findPageRowsByStatus", "IDX_ORDERS_STATUS_CREATED_AT_ID", "STATUS = ?1",
+                        () -> orders.findPageRowsByStatus(STATUS, Limit.of(20))),
+                seeks("OrderRepository.findPageRowsAfter", "IDX_ORDERS_CREATED_AT_ID", "CREATED_AT >= ?1",
+                        () -> orders.findPageRowsAfter(NOW, 1L, Limit.of(20))),
+                seeks("OrderRepository.findPageRowsAfterByStatus", "IDX_ORDERS_STATUS_CREATED_AT_ID",
+                        "STATUS = ?1 AND CREATED_AT >= ?2",
+                        () -> orders.findPageRowsAfterByStatus(STATUS, NOW, 1L, Limit.of(20))),
+                seeks("OrderRepository.findFirstIdByStatusFrom", "IDX_ORDERS_STATUS_ID", "STATUS = ?1 AND ID >= ?2",
+                        () -> orders.findFirstIdByStatusFrom(STATUS, 1L)),
+                seeks("OrderRepository.transitionRange", "IDX_ORDERS_STATUS_ID", "STATUS = ?2 AND ID >= ?3",
+                        () -> orders.transitionRange(STATUS, OrderStatus.PROCESSING, 1L, 100L)),
+                seeks("OrderRepository.transition", "IDX_ORDERS_STATUS_ID", "ID = ?2",
+                        () -> orders.transition(1L, List.of(STATUS), OrderStatus.PROCESSING, null)),
+                seeks("OrderRepository.lockStates", "PRIMARY_KEY", "ID IN(?1, ?2)", () -> orders.lockStates(IDS)),
+                seeks("OrderRepository.transitionAll", "PRIMARY_KEY", "ID IN(?2, ?3)",
+                        () -> orders.transitionAll(IDS, OrderStatus.PROCESSING)),
+                seeks("OrderRepository.findIdsUnchangedSince", "IDX_ORDERS_STATUS_ID", "STATUS IN(?1, ?2) AND ID > ?3",
+                        () -> orders.findIdsUnchangedSince(EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELED),
+                                0L, NOW, Limit.of(100))),
+                seeks("OrderRepository.deleteByIds", "PRIMARY_KEY", "ID IN(?1, ?2)", () -> orders.deleteByIds(IDS)),
+                seeks("OrderRepository.findStatusById", "PRIMARY_KEY", "ID = ?1", () -> orders.findStatusById(1L)),
+                seeks("OrderRepository.findVersionById", "PRIMARY_KEY", "ID = ?1", () -> orders.findVersionById(1L)),
+                seeks("OrderRepository.findTotalPriceById", "PRIMARY_KEY", "ID = ?1",
+                        () -> orders.findTotalPriceById(1L)),
+                seeks("OrderRepository.lockTotalsInRange", "IDX_ORDERS_STATUS_ID", "STATUS = ?1",
+                        () -> orders.lockTotalsInRange(STATUS, 1L, 100L)),
+                reads("OrderRepository.search (no filter)", "IDX_ORDERS_CREATED_AT_ID", "index sorted",
+                        () -> orders.search(search(Set.of(), null, null, null, SortField.CREATED_AT, false), null,
+                                Limit.of(20))),
+                seeks("OrderRepository.search (one status)", "IDX_ORDERS_STATUS_CREATED_AT_ID", "STATUS = ?1",
+                        () -> orders.search(search(Set.of(OrderStatus.PENDING), null, null, null, SortField.CREATED_AT,
+                                false), null, Limit.of(20))),
+                seeks("OrderRepository.search (statuses)", "IDX_ORDERS_STATUS", "STATUS IN(?1, ?2)",
+                        () -> orders.search(search(EnumSet.of(OrderStatus.PENDING, OrderStatus.SHIPPED), null, null,
+                                null, SortField.CREATED_AT, false), null, Limit.of(20))),
+                seeks("OrderRepository.search (createdAt range, after)", "IDX_ORDERS_CREATED_AT_ID",
+                        "CREATED_AT >= ?",
+                        () -> orders.search(search(Set.of(), NOW, null, null, SortField.CREATED_AT, false),
+                                new OrderSearch.Position(NOW, 1L), Limit.of(20))),
+                seeks("OrderRepository.search (total range)", "IDX_ORDERS_TOTAL_PRICE_ID", "TOTAL_PRICE >= ?1",
+                        () -> orders.search(search(Set.of(), null, 100.0, null, SortField.TOTAL_PRICE, false), null,
+                                Limit.of(20))),
+                seeks("OrderRepository.search (by total desc, after)", "IDX_ORDERS_TOTAL_PRICE_ID", "TOTAL_PRICE <= ?1",
+                        () -> orders.search(search(Set.of(), null, null, null, SortField.TOTAL_PRICE, true),
+                                new OrderSearch.Position(500.0, 1L), Limit.of(20))),
+                seeks("OrderRepository.search (item name)", "IDX_ORDER_ITEMS_NAME", "NAME >= ?1 AND NAME < ?2",
+                        () -> orders.search(search(Set.of(), null, null, "Item 4", SortField.CREATED_AT, false), null,
+                                Limit.of(20))),
+                scans("OrderRepository.findAllRows", "ORDERS", () -> orders.findAllRows(null)),
+                scans("OrderRepository.totalsByStatus", "ORDERS", () -> orders.totalsByStatus()),
+
+                seeks("OrderItemRepository.findRowsByOrderIds", "IDX_ORDER_ITEMS_ORDER_ID", "ORDER_ID IN(?1, ?2)",
+                        () -> items.findRowsByOrderIds(IDS)),
+                seeks("OrderItemRepository.deleteByOrderIds", "IDX_ORDER_ITEMS_ORDER_ID", "ORDER_ID IN(?1, ?2)",
+                        () -> items.deleteByOrderIds(IDS)),
+                scans("OrderItemRepository.findAllRows", "ORDERS", () -> items.findAllRows(null)),
+
+                seeks("OrderEventRepository.insertRangeTransitions", "IDX_ORDERS_STATUS_ID", "STATUS = ?2",
+                        () -> events.insertRangeTransitions(STATUS, OrderStatus.PROCESSING, 1L, 100L)),
+                seeks("OrderEventRepository.insertTransitions", "PRIMARY_KEY", "ID IN(?2, ?3)",
+                        () -> events.insertTransitions(IDS, OrderStatus.PROCESSING)),
+                seeks("OrderEventRepository.findUnsequencedIds", "UK_ORDER_EVENTS_SEQ", "SEQ IS NULL",
+                        () -> events.findUnsequencedIds(Limit.of(100))),
+                reads("OrderEventRepository.findMaxSeq", "UK_ORDER_EVENTS_SEQ", "direct lookup",
+                        () -> events.findMaxSeq()),
+                seeks("OrderEventRepository.assignSeq", "UK_ORDER_EVENTS_SEQ", "SEQ IS NULL",
+                        () -> events.assignSeq(1L, 100L, 0L)),
+                seeks("OrderEventRepository.findSequencedAfter", "UK_ORDER_EVENTS_SEQ", "SEQ > ?1",
+                        () -> events.findSequencedAfter(0L, Limit.of(100))),
+                seeks("OrderEventRepository.findForReplay", "UK_ORDER_EVENTS_SEQ", "SEQ > ?1",
+                        () -> events.findForReplay(0L, 1L, null, Limit.of(100))),
+                seeks("OrderEventRepository.deleteSequencedBefore", "IDX_ORDER_EVENTS_OCCURRED_AT", "OCCURRED_AT < ?1",
+                        () -> events.deleteSequencedBefore(NOW)),
+
+                seeks("ArchivedOrderRepository.findRowById", "PRIMARY_KEY", "ID = ?1",
+                        () -> archivedOrders.findRowById(1L)),
+                seeks("ArchivedOrderRepository.findVersionById", "PRIMARY_KEY", "ID = ?1",
+                        () -> archivedOrders.findVersionById(1L)),
+                seeks("ArchivedOrderRepository.findStatusById", "PRIMARY_KEY", "ID = ?1",
+                        () -> archivedOrders.findStatusById(1L)),
+                seeks("ArchivedOrderRepository.findStates", "PRIMARY_KEY", "ID IN(?1, ?2)",
+                        () -> archivedOrders.findStates(IDS)),
+                seeks("ArchivedOrderRepository.copyFromOrders", "PRIMARY_KEY", "ID IN(?1, ?2)",
+                        () -> archivedOrders.copyFromOrders(IDS)),
+                scans("ArchivedOrderRepository.totalsByStatus", "ORDERS_ARCHIVE", () -> archivedOrders.totalsByStatus()),
+                seeks("ArchivedOrderItemRepository.findRowsByOrderIds", "IDX_ORDER_ITEMS_ARCHIVE_ORDER_ID",
+                        "ORDER_ID IN(?1, ?2)", () -> archivedItems.findRowsByOrderIds(IDS)),
+                seeks("ArchivedOrderItemRepository.copyFromOrderItems", "IDX_ORDER_ITEMS_ORDER_ID", "ORDER_ID IN(?1, ?2)",
+                        () -> archivedItems.copyFromOrderItems(IDS)),
+
+                seeks("IdempotencyKeyRepository.findLive", "PRIMARY_KEY", "IDEMPOTENCY_KEY = ?1",
+                        () -> idempotencyKeys.findLive("key", NOW)),
+                seeks("IdempotencyKeyRepository.deleteIfExpired", "PRIMARY_KEY", "IDEMPOTENCY_KEY = ?1",
+                        () -> idempotencyKeys.deleteIfExpired("key", NOW)),
+                seeks("IdempotencyKeyRepository.deleteExpired", "IDX_IDEMPOTENCY_KEYS_EXPIRES_AT", "EXPIRES_AT < ?1",
+                        () -> idempotencyKeys.deleteExpired(NOW)),
+                seeks("JobLeaseRepository.takeOver", "PRIMARY_KEY", "LEASE_KEY = ?3",
+                        () -> leases.takeOver("key", "me", NOW, NOW)),
+                seeks("JobLeaseRepository.release", "PRIMARY_KEY", "LEASE_KEY = ?1", () -> leases.release("key", "me")));
+    }
+
+    /** Looks rows up through {@code index} with {@code condition} as the index condition */
+    private DynamicTest seeks(String query, String index, String condition, Runnable call) {
+        return DynamicTest.dynamicTest(query + " seeks " + index, () -> {
+            String path = accessPath(planOf(call));
+            assertThat(path).as(query).startsWith("PUBLIC." + index).contains(": ").contains(condition);
+        });
+    }
+
+    /** Reads {@code index} in order without a condition, stopping early ({@code index sorted}, {@code direct lookup}) */
+    private DynamicTest reads(String query, String index, String marker, Runnable call) {
+        return DynamicTest.dynamicTest(query + " reads " + index, () -> {
+            String plan = planOf(call);
+            assertThat(accessPath(plan)).as(query).startsWith("PUBLIC." + index).doesNotContain(": ");
+            assertThat(plan).as(query).contains("/* " + marker + " */");
+        });
+    }
+
+    /** Reads every row of {@code table} by design (unbounded listing, aggregates); listed so a change is deliberate */
+    private DynamicTest scans(String query, String table, Runnable call) {
+        return DynamicTest.dynamicTest(query + " scans " + table, () -> {
+            String plan = planOf(call);
+            assertThat(plan).as(query).contains("FROM \"PUBLIC\".\"" + table + "\"");
+            assertThat(accessPath(plan)).as(query).doesNotContain(": ");
+        });
+    }
+
+    /** The first table access in an H2 plan, e.g. {@code PUBLIC.IDX_ORDERS_STATUS_ID: STATUS = ?1} */
+    private static String accessPath(String plan) {
+        Matcher access = ACCESS_PATH.matcher(plan);
+        assertThat(access.find()).as(plan).isTrue();
+        return access.group(1).trim();
+    }
+
+    private static OrderSearch search(Set<OrderStatus> statuses, Date createdFrom, Double minTotal, String itemName,
+                                      SortField sort, boolean descending) {
+        return new OrderSearch(statuses, createdFrom, null, minTotal, null, itemName, sort, descending);
+    }
+
+    /** Runs the call in a rolled-back transaction and returns EXPLAIN of the one statement it issued */
+    private String planOf(Runnable call) {
+        List<String> sql = new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            statements.startRecording();
+            List<String> issued;
+            try {
+                call.run();
+            } finally {
+                issued = statements.stopRecording();
+            }
+            return issued;
+        });
+        assertThat(sql).hasSize(1);
+        return jdbc.execute("explain " + sql.get(0), (PreparedStatementCallback<String>) ps -> {
+            for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                ps.setObject(i, null);
+            }
+            try (ResultSet plan = ps.executeQuery()) {
+                plan.next();
+                return plan.getString(1).replaceAll("\\s+", " ");
+            }
+        });
+    }
+}
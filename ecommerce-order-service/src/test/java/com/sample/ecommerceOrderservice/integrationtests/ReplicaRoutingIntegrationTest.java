@@ -0,0 +1,129 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.config.ReadYourWritesFilter;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Two in-memory H2 replicas, seeded differently from the primary, plus one that cannot be
+ * reached. Replicas are not fed from the primary here, so where a read went shows in its result.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicated",
+        "orders.datasource.replica-urls=" + ReplicaRoutingIntegrationTest.REPLICA_0 + ","
+                + ReplicaRoutingIntegrationTest.REPLICA_1 + ",jdbc:h2:tcp://localhost:1/unreachable",
+        "orders.datasource.replica-connection-timeout-ms=250",
+        "orders.datasource.replica-retry-ms=60000",
+        "orders.datasource.sticky-ms=60000"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_0 = "jdbc:h2:mem:replica0;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_1 = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private final List<JdbcTemplate> replicas = List.of(replica(REPLICA_0), replica(REPLICA_1));
+
+    @BeforeEach
+    void seedReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            JdbcTemplate replica = replicas.get(i);
+            Flyway.configure().dataSource(replica.getDataSource()).load().migrate();
+            replica.update("""
+                    insert into orders (id, status, created_at, total_price, item_count, version)
+                    values (-1, ?, current_timestamp, 10.0, 0, 0)""", i == 0 ? "PENDING" : "SHIPPED");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        replicas.forEach(replica -> replica.update("delete from orders"));
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Read-only requests are balanced over the replicas and skip the one that is down")
+    void testReadsGoToReplicas() throws Exception {
+        double primaryReads = reads("primary");
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            JsonNode page = json(mockMvc.perform(get("/api/orders").param("includeItems", "false"))
+                    .andExpect(status().isOk()).andReturn());
+            assertThat(page.get("items")).hasSize(1);
+            seen.add(page.get("items").get(0).get("status").asText());
+        }
+
+        assertThat(seen).containsExactlyInAnyOrder("PENDING", "SHIPPED");
+        assertThat(reads("primary")).isEqualTo(primaryReads);
+        assertThat(reads("replica-0") + reads("replica-1")).isGreaterThanOrEqualTo(6);
+        assertThat(meterRegistry.get("orders.datasource.replica.up").tag("replica", "replica-2").gauge().value())
+                .isZero();
+        assertThat(meterRegistry.get("orders.datasource.replica.up").tag("replica", "replica-0").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("After its own write a client reads from the primary until its cookie expires")
+    void testReadYourWrites() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new OrderItemDTO("Laptop", 1, 1200)))))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE))
+                .andReturn();
+        long id = json(created).get("id").asLong();
+        Cookie sticky = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        mockMvc.perform(get("/api/orders/" + id)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/orders/" + id).cookie(sticky))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1));
+        mockMvc.perform(get("/api/orders").param("includeItems", "false").cookie(expired))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(-1));
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("orders.datasource.reads").tag("target", target).functionCounter().count();
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static JdbcTemplate replica(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
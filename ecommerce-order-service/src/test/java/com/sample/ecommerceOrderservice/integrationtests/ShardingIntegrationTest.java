@@ -0,0 +1,194 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.config.Shards;
+import com.sample.ecommerceOrderservice.dto.BulkStatusUpdate;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.service.OrderPromotionJob;
+import com.sample.ecommerceOrderservice.service.PromotionReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Three in-memory H2 shards. Each is checked directly over JDBC to see where orders landed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ShardingIntegrationTest.SHARD_0,
+        "orders.sharding.shard-urls=" + ShardingIntegrationTest.SHARD_1 + "," + ShardingIntegrationTest.SHARD_2,
+        "spring.jpa.open-in-view=false",
+        // the outbox poller only reads shard 0; keep it quiet
+        "orders.events.poll-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class ShardingIntegrationTest {
+
+    static final String SHARD_0 = "jdbc:h2:mem:sharded0;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:sharded1;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:sharded2;DB_CLOSE_DELAY=-1";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private Shards shards;
+    @Autowired private OrderPromotionJob promotionJob;
+
+    private final List<JdbcTemplate> databases = List.of(shard(SHARD_0), shard(SHARD_1), shard(SHARD_2));
+
+    @AfterEach
+    void cleanUp() {
+        for (JdbcTemplate database : databases) {
+            database.update("delete from order_events");
+            database.update("delete from order_items");
+            database.update("delete from orders");
+            database.update("delete from idempotency_keys");
+        }
+    }
+
+    @Test
+    @DisplayName("New orders are spread over the shards and found again by id")
+    void testOrdersSpreadAndFoundById() throws Exception {
+        assertThat(shards.count()).isEqualTo(3);
+        List<Long> ids = create(6);
+
+        Set<Integer> used = new HashSet<>();
+        for (long id : ids) {
+            int shard = shards.shardOf(id);
+            used.add(shard);
+            assertThat(databases.get(shard).queryForObject(
+                    "select count(*) from order_items where order_id = ?", Integer.class, id)).isEqualTo(2);
+            mockMvc.perform(get("/api/orders/" + id))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(id))
+                    .andExpect(jsonPath("$.items.length()").value(2));
+        }
+        assertThat(used).containsExactlyInAnyOrder(0, 1, 2);
+        for (JdbcTemplate database : databases) {
+            assertThat(database.queryForObject("select count(*) from orders", Integer.class)).isEqualTo(2);
+        }
+
+        long onShard1 = ids.stream().filter(id -> shards.shardOf(id) == 1).findFirst().orElseThrow();
+        long onShard2 = ids.stream().filter(id -> shards.shardOf(id) == 2).findFirst().orElseThrow();
+        mockMvc.perform(put("/api/orders/" + onShard2 + "/status").param("status", "PROCESSING"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders/" + onShard1 + "/cancel")).andExpect(status().isOk());
+        assertThat(databases.get(2).queryForObject(
+                "select status from orders where id = ?", String.class, onShard2)).isEqualTo("PROCESSING");
+        assertThat(databases.get(1).queryForObject(
+                "select status from orders where id = ?", String.class, onShard1)).isEqualTo("CANCELED");
+        assertThat(databases.get(1).queryForObject(
+                "select count(*) from order_events where order_id = ?", Integer.class, onShard1)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Pages merge all shards in (createdAt, id) order")
+    void testPagesMergeShards() throws Exception {
+        List<Long> ids = create(7);
+
+        List<Long> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/orders").param("limit", "3");
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            JsonNode page = json(mockMvc.perform(request).andExpect(status().isOk()).andReturn());
+            assertThat(page.get("items").size()).isLessThanOrEqualTo(3);
+            page.get("items").forEach(order -> {
+                assertThat(order.get("items")).hasSize(2);
+                listed.add(order.get("id").asLong());
+            });
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        // created one after another, so creation order is the listing order
+        assertThat(listed).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    @DisplayName("The promotion job promotes pending orders on every shard")
+    void testPromotionCoversAllShards() throws Exception {
+        create(5);
+
+        PromotionReport report = promotionJob.autoUpdatePendingOrders();
+
+        assertThat(report.rowsPromoted()).isEqualTo(5);
+        for (JdbcTemplate database : databases) {
+            assertThat(database.queryForObject("select count(*) from orders where status = 'PENDING'", Integer.class))
+                    .isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("A bulk status change is applied on every shard it names")
+    void testBulkStatusAcrossShards() throws Exception {
+        List<Long> ids = create(4);
+
+        mockMvc.perform(put("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkStatusUpdate(ids, OrderStatus.PROCESSING, null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[3].id").value(ids.get(3)));
+
+        for (long id : ids) {
+            assertThat(databases.get(shards.shardOf(id)).queryForObject(
+                    "select status from orders where id = ?", String.class, id)).isEqualTo("PROCESSING");
+        }
+    }
+
+    @Test
+    @DisplayName("An idempotent create is replayed from the shard that holds its key and order")
+    void testIdempotencyKeyOnOrderShard() throws Exception {
+        String body = objectMapper.writeValueAsString(List.of(new OrderItemDTO("Laptop", 1, 1200)));
+        long id = json(mockMvc.perform(post("/api/orders").header("Idempotency-Key", "sharded-key")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated()).andReturn()).get("id").asLong();
+
+        mockMvc.perform(post("/api/orders").header("Idempotency-Key", "sharded-key")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(id));
+        assertThat(databases.get(shards.shardOf(id)).queryForObject(
+                "select count(*) from idempotency_keys where idempotency_key = ?", Integer.class, "sharded-key"))
+                .isEqualTo(1);
+    }
+
+    private List<Long> create(int count) throws Exception {
+        String body = objectMapper.writeValueAsString(List.of(
+                new OrderItemDTO("Laptop", 1, 1200), new OrderItemDTO("Mouse", 2, 25)));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(json(mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isCreated()).andReturn()).get("id").asLong());
+            Thread.sleep(2); // distinct createdAt values
+        }
+        return ids;
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static JdbcTemplate shard(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
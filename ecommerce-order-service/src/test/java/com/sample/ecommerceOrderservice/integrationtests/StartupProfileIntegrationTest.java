@@ -0,0 +1,39 @@
+package com.sample.ecommerceOrderservice.integrationtests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** The startup profile defers beans to first use but still starts the scheduled jobs */
+@SpringBootTest
+@ActiveProfiles("startup")
+@AutoConfigureMockMvc
+class StartupProfileIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ConfigurableApplicationContext context;
+
+    @Test
+    @DisplayName("Scheduled jobs are created at startup, the controller on the first request")
+    void testLazyInitializationKeepsJobsEager() throws Exception {
+        assertThat(context.getBeanFactory().containsSingleton("orderPromotionJob")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("orderArchiver")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("orderStats")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("orderEventDispatcher")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("idempotencyStore")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("orderController")).isFalse();
+
+        mockMvc.perform(get("/api/orders").param("limit", "1")).andExpect(status().isOk());
+
+        assertThat(context.getBeanFactory().containsSingleton("orderController")).isTrue();
+    }
+}
@@ -0,0 +1,221 @@
+package com.sample.ecommerceOrderservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the order REST API.
+ *
+ * <p>Each worker owns an equal share of the target rate and a fixed schedule of send
+ * times. A response that arrives late does not push the schedule back: the next request
+ * is sent immediately and its latency still counts from its scheduled time. This keeps a
+ * stalled server from silently lowering the offered load (coordinated omission).
+ */
+final class LoadGenerator {
+
+    /** Orders created up front so reads and transitions have targets from the first request */
+    private static final int SEED_ORDERS = 500;
+    /** Recently created ids that GET, status update and cancel pick from */
+    private static final int ID_POOL_SIZE = 4096;
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final OrderStatus[] UPDATE_TARGETS = {
+            OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED
+    };
+
+    private final URI baseUri;
+    private final LoadSettings settings;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final String createBody;
+    private final Operation[] weightedOps;
+
+    private final AtomicLongArray ids = new AtomicLongArray(ID_POOL_SIZE);
+    private final AtomicLong idsWritten = new AtomicLong();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+    LoadGenerator(URI baseUri, LoadSettings settings, ObjectMapper objectMapper) throws IOException {
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.createBody = objectMapper.writeValueAsString(List.of(
+                new OrderItemDTO("Laptop", 1, 1200),
+                new OrderItemDTO("Mouse", 2, 25)));
+
+        List<Operation> ops = new ArrayList<>();
+        settings.mix().forEach((op, weight) -> ops.addAll(Collections.nCopies(weight, op)));
+        this.weightedOps = ops.toArray(Operation[]::new);
+        for (Operation op : Operation.values()) {
+            recorders.put(op, new Recorder());
+        }
+    }
+
+    LoadReport run() throws Exception {
+        seed();
+
+        long intervalNanos = (long) (settings.concurrency() * 1_000_000_000L / settings.ratePerSecond());
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        try {
+            for (int w = 0; w < settings.concurrency(); w++) {
+                // stagger workers so the combined schedule is evenly spaced
+                long first = start + w * intervalNanos / settings.concurrency();
+                workers.submit(() -> drive(first, intervalNanos, measureFrom, end));
+            }
+        } finally {
+            workers.shutdown();
+        }
+        long grace = settings.warmup().plus(settings.duration()).plusMinutes(2).toMillis();
+        if (!workers.awaitTermination(grace, TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+            throw new IllegalStateException("Load workers did not finish in time");
+        }
+        // achieved throughput: a saturated server finishes the schedule late
+        return report((Math.max(System.nanoTime(), end) - measureFrom) / 1e9);
+    }
+
+    private void drive(long first, long intervalNanos, long measureFrom, long end) {
+        for (long scheduled = first; scheduled < end; scheduled += intervalNanos) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation op = weightedOps[ThreadLocalRandom.current().nextInt(weightedOps.length)];
+            int status = execute(op);
+            if (scheduled >= measureFrom) {
+                recorders.get(op).record((System.nanoTime() - scheduled) / 1000, status);
+            }
+        }
+    }
+
+    /** Sends one request and returns its HTTP status, or -1 on a transport failure */
+    private int execute(Operation op) {
+        try {
+            return switch (op) {
+                case CREATE -> {
+                    HttpResponse<String> response = send(json(HttpRequest.newBuilder(uri("/api/orders")), createBody));
+                    if (response.statusCode() == 201) {
+                        remember(objectMapper.readTree(response.body()).get("id").asLong());
+                    }
+                    yield response.statusCode();
+                }
+                case GET -> send(HttpRequest.newBuilder(uri("/api/orders/" + randomId())).GET()).statusCode();
+                case LIST -> send(HttpRequest.newBuilder(uri("/api/orders?limit=50")).GET()).statusCode();
+                case UPDATE_STATUS -> {
+                    OrderStatus target = UPDATE_TARGETS[ThreadLocalRandom.current().nextInt(UPDATE_TARGETS.length)];
+                    yield send(HttpRequest.newBuilder(uri("/api/orders/" + randomId() + "/status?status=" + target))
+                            .PUT(HttpRequest.BodyPublishers.noBody())).statusCode();
+                }
+                case CANCEL -> send(HttpRequest.newBuilder(uri("/api/orders/" + randomId() + "/cancel"))
+                        .POST(HttpRequest.BodyPublishers.noBody())).statusCode();
+            };
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private void seed() throws Exception {
+        String body = objectMapper.writeValueAsString(Collections.nCopies(SEED_ORDERS, objectMapper.readTree(createBody)));
+        HttpResponse<String> response = send(json(HttpRequest.newBuilder(uri("/api/orders/batch")), body));
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Seeding orders failed with HTTP " + response.statusCode());
+        }
+        for (JsonNode result : objectMapper.readTree(response.body())) {
+            remember(result.get("order").get("id").asLong());
+        }
+    }
+
+    private void remember(long id) {
+        ids.set((int) (idsWritten.getAndIncrement() % ID_POOL_SIZE), id);
+    }
+
+    private long randomId() {
+        int filled = (int) Math.min(idsWritten.get(), ID_POOL_SIZE);
+        return ids.get(ThreadLocalRandom.current().nextInt(filled));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder request, String body) {
+        return request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+
+    private LoadReport report(double seconds) {
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        long ok = 0, rejected = 0, errors = 0;
+        Map<Operation, LoadReport.OperationStats> operations = new EnumMap<>(Operation.class);
+        for (Map.Entry<Operation, Recorder> entry : recorders.entrySet()) {
+            Recorder r = entry.getValue();
+            if (r.latencies.getTotalCount() == 0) {
+                continue;
+            }
+            all.add(r.latencies);
+            ok += r.ok.sum();
+            rejected += r.rejected.sum();
+            errors += r.errors.sum();
+            operations.put(entry.getKey(), LoadReport.OperationStats.of(
+                    r.latencies, r.ok.sum(), r.rejected.sum(), r.errors.sum(), seconds));
+        }
+        return new LoadReport(settings, seconds, LoadReport.OperationStats.of(all, ok, rejected, errors, seconds),
+                operations);
+    }
+
+    /** Latency histogram (microseconds) and outcome counters for one operation */
+    private static final class Recorder {
+        final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        void record(long micros, int status) {
+            latencies.recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+            // 3xx (e.g. 304 Not Modified) is a successful answer, not an error
+            if (status >= 200 && status < 400) {
+                ok.increment();
+            } else if (status >= 400 && status < 500) {
+                rejected.increment();
+            } else {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sample.ecommerceOrderservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Result of one load run; serialized as the machine-readable report. Latencies are in
+ * milliseconds and measured from each request's scheduled start, so queueing behind a
+ * slow response counts against the server rather than being hidden.
+ */
+record LoadReport(LoadSettings settings, double measuredSeconds, OperationStats total,
+                  Map<Operation, OperationStats> operations) {
+
+    /**
+     * @param ok       2xx and 3xx responses
+     * @param rejected 4xx responses the mix provokes on purpose (e.g. 409 for a transition
+     *                 that is not allowed from the order's current status)
+     * @param errors   5xx responses and transport failures
+     */
+    record OperationStats(long count, long ok, long rejected, long errors, double throughputPerSecond,
+                          double meanMs, double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        static OperationStats of(Histogram micros, long ok, long rejected, long errors, double seconds) {
+            return new OperationStats(micros.getTotalCount(), ok, rejected, errors,
+                    micros.getTotalCount() / seconds,
+                    micros.getMean() / 1000.0,
+                    micros.getValueAtPercentile(50) / 1000.0,
+                    micros.getValueAtPercentile(90) / 1000.0,
+                    micros.getValueAtPercentile(99) / 1000.0,
+                    micros.getValueAtPercentile(99.9) / 1000.0,
+                    micros.getMaxValue() / 1000.0);
+        }
+    }
+
+    void write(Path file, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+    }
+
+    String summary() {
+        StringBuilder out = new StringBuilder(String.format(
+                "%-14s %8s %8s %8s %6s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "rejected", "errors", "rps", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "mean ms"));
+        operations.forEach((op, s) -> out.append(line(op.name(), s)));
+        out.append(line("TOTAL", total));
+        return out.toString();
+    }
+
+    private static String line(String name, OperationStats s) {
+        return String.format("%-14s %8d %8d %8d %6.0f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, s.count(), s.rejected(), s.errors(), s.throughputPerSecond(),
+                s.p50Ms(), s.p99Ms(), s.p999Ms(), s.maxMs(), s.meanMs());
+    }
+}
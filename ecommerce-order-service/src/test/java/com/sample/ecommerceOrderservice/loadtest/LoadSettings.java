@@ -0,0 +1,56 @@
+package com.sample.ecommerceOrderservice.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load run parameters, read from system properties so the same test can be driven
+ * from the command line, e.g. {@code mvn test -Pload-test -Dload.rate=500}.
+ *
+ * @param concurrency   worker threads issuing requests
+ * @param ratePerSecond target request rate over all workers
+ * @param warmup        time run before recording starts
+ * @param duration      recorded time
+ * @param mix           relative weight of each operation
+ */
+record LoadSettings(int concurrency, double ratePerSecond, Duration warmup, Duration duration,
+                    Map<Operation, Integer> mix) {
+
+    /** Default weights: read-heavy, with a steady trickle of writes */
+    static final String DEFAULT_MIX = "create=20,get=40,list=25,update_status=10,cancel=5";
+
+    LoadSettings {
+        if (concurrency < 1 || ratePerSecond <= 0) {
+            throw new IllegalArgumentException("load.concurrency and load.rate must be positive");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("load.mix needs at least one positive weight");
+        }
+    }
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Integer.getInteger("load.concurrency", 8),
+                Double.parseDouble(System.getProperty("load.rate", "200")),
+                Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5)),
+                Duration.ofSeconds(Long.getLong("load.duration-seconds", 30)),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX)));
+    }
+
+    /** Parses {@code "create=20,get=40"}; operations left out get weight 0 */
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            mix.put(op, 0);
+        }
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+            }
+            mix.put(Operation.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
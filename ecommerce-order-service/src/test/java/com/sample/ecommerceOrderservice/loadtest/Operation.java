@@ -0,0 +1,10 @@
+package com.sample.ecommerceOrderservice.loadtest;
+
+/** The {@code OrderController} calls the load generator can issue */
+enum Operation {
+    CREATE,
+    GET,
+    LIST,
+    UPDATE_STATUS,
+    CANCEL
+}
@@ -0,0 +1,53 @@
+package com.sample.ecommerceOrderservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the REST API at a fixed rate, logs a latency/throughput summary and writes the full
+ * report to {@code target/load-report.json} (override with {@code -Dload.report=...}).
+ * Tagged {@code load}, so it only runs with {@code mvn test -Pload-test}.
+ * See {@link LoadSettings} for the tunable parameters.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+class OrderApiLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderApiLoadTest.class);
+
+    @LocalServerPort private int port;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Sustain the target request rate without server errors")
+    void testSustainedLoad() throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+
+        LoadReport report = new LoadGenerator(URI.create("http://localhost:" + port), settings, objectMapper).run();
+        report.write(Path.of(System.getProperty("load.report", "target/load-report.json")), objectMapper);
+        log.info("Load test results:\n{}", report.summary());
+
+        assertThat(report.total().errors()).isZero();
+        assertThat(report.total().count()).isPositive();
+        String maxP99 = System.getProperty("load.max-p99-ms");
+        if (maxP99 != null) {
+            assertThat(report.total().p99Ms()).isLessThanOrEqualTo(Double.parseDouble(maxP99));
+        }
+    }
+}
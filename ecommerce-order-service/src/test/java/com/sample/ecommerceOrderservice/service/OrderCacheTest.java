@@ -0,0 +1,140 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.dto.OrderDTO;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCacheTest {
+
+    private static Optional<OrderDTO> order(long id, OrderStatus status) {
+        return Optional.of(new OrderDTO(id, status, new Date(), List.of(), 0));
+    }
+
+    @Test
+    void testGet_LoadsOnceThenHits() {
+        OrderCache cache = new OrderCache(10, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> { loads.incrementAndGet(); return order(1, OrderStatus.PENDING); });
+        var second = cache.get(1L, () -> { loads.incrementAndGet(); return order(1, OrderStatus.PENDING); });
+
+        assertEquals(1, loads.get());
+        assertEquals(OrderStatus.PENDING, second.orElseThrow().getStatus());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void testGet_DoesNotCacheMissingOrders() {
+        OrderCache cache = new OrderCache(10, 60000);
+
+        cache.get(1L, Optional::empty);
+
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBeyondMaxSize() {
+        OrderCache cache = new OrderCache(2, 60000);
+        cache.get(1L, () -> order(1, OrderStatus.PENDING));
+        cache.get(2L, () -> order(2, OrderStatus.PENDING));
+        cache.get(1L, () -> order(1, OrderStatus.PENDING)); // touch 1
+        cache.get(3L, () -> order(3, OrderStatus.PENDING));
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, () -> { loads.incrementAndGet(); return order(1, OrderStatus.PENDING); });
+        cache.get(2L, () -> { loads.incrementAndGet(); return order(2, OrderStatus.PENDING); });
+
+        assertEquals(1, loads.get()); // only 2 was evicted
+        assertTrue(cache.stats().evictions() >= 1);
+    }
+
+    @Test
+    void testLargeCacheEvictsWithinEachSegment() {
+        // 64 segments of 100 entries, by id modulo 64
+        OrderCache cache = new OrderCache(6400, 60000);
+        for (long id = 0; id < 6400; id++) {
+            long orderId = id;
+            cache.get(orderId, () -> order(orderId, OrderStatus.PENDING));
+        }
+        assertEquals(6400, cache.stats().size());
+
+        cache.get(0L, () -> order(0, OrderStatus.PENDING)); // touch 0
+        cache.get(6400L, () -> order(6400, OrderStatus.PENDING));
+
+        assertEquals(1, cache.stats().evictions());
+        assertTrue(cache.peek(0L).isPresent());
+        assertTrue(cache.peek(1L).isPresent());
+        assertTrue(cache.peek(64L).isEmpty()); // least recently used of 0's segment
+    }
+
+    @Test
+    void testExpiresEntriesAfterTtl() {
+        OrderCache cache = new OrderCache(10, 0);
+        cache.get(1L, () -> order(1, OrderStatus.PENDING));
+
+        cache.get(1L, () -> order(1, OrderStatus.PROCESSING));
+
+        assertEquals(1, cache.stats().expirations());
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void testInvalidate_DropsEntry() {
+        OrderCache cache = new OrderCache(10, 60000);
+        cache.get(1L, () -> order(1, OrderStatus.PENDING));
+
+        cache.invalidateAfterCommit(List.of(1L));
+
+        var reloaded = cache.get(1L, () -> order(1, OrderStatus.CANCELED));
+        assertEquals(OrderStatus.CANCELED, reloaded.orElseThrow().getStatus());
+    }
+
+    @Test
+    void testLoadRacingWithInvalidationIsNotStored() {
+        OrderCache cache = new OrderCache(10, 60000);
+
+        // a writer commits while this reader is still loading the old row
+        cache.get(1L, () -> {
+            cache.invalidateAfterCommit(List.of(1L));
+            return order(1, OrderStatus.PENDING);
+        });
+
+        var next = cache.get(1L, () -> order(1, OrderStatus.CANCELED));
+        assertEquals(OrderStatus.CANCELED, next.orElseThrow().getStatus());
+    }
+
+    @Test
+    void testLoadsWithinSettleTimeAreNotStored() throws InterruptedException {
+        OrderCache cache = new OrderCache(10, 60000, 50);
+        cache.get(1L, () -> order(1, OrderStatus.PENDING));
+        assertEquals(1, cache.stats().size());
+
+        // a replica may still return the old row right after the change commits
+        cache.invalidateAfterCommit(List.of(1L));
+        cache.get(1L, () -> order(1, OrderStatus.PENDING));
+        assertEquals(0, cache.stats().size());
+
+        Thread.sleep(60);
+        cache.get(1L, () -> order(1, OrderStatus.CANCELED));
+        assertEquals(OrderStatus.CANCELED, cache.peek(1L).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testInvalidateRange() {
+        OrderCache cache = new OrderCache(10, 60000);
+        cache.get(5L, () -> order(5, OrderStatus.PENDING));
+        cache.get(15L, () -> order(15, OrderStatus.PENDING));
+
+        cache.invalidateRangeAfterCommit(0, 10);
+
+        assertEquals(1, cache.stats().size());
+    }
+}
@@ -0,0 +1,102 @@
+package com.sample.ecommerceOrderservice.service;
+
+import com.sample.ecommerceOrderservice.config.Shards;
+import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.OrderEventRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPromotionJobTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderEventRepository eventRepository;
+
+    @Mock
+    private JobLeases leases;
+
+    @Mock
+    private OrderCache orderCache;
+
+    @Mock
+    private OrderStats orderStats;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OrderPromotionJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new OrderPromotionJob(orderRepository, eventRepository, leases, orderCache, orderStats, new Shards(1), transactionManager, meterRegistry, 10, 60000);
+    }
+
+    @Test
+    void testAutoUpdatePendingOrders_PromotesClaimedChunksOnly() {
+        when(orderRepository.findFirstIdByStatusFrom(OrderStatus.PENDING, 0)).thenReturn(3L);
+        when(orderRepository.findFirstIdByStatusFrom(OrderStatus.PENDING, 10)).thenReturn(25L);
+        when(orderRepository.findFirstIdByStatusFrom(OrderStatus.PENDING, 30)).thenReturn(null);
+        when(leases.tryAcquire(eq("order-promotion:0"), anyLong())).thenReturn(true);
+        when(leases.tryAcquire(eq("order-promotion:2"), anyLong())).thenReturn(false);
+        when(orderRepository.lockTotalsInRange(OrderStatus.PENDING, 0, 10)).thenReturn(List.of(10.0, 20.0, 5.0, 5.0));
+        when(orderRepository.transitionRange(OrderStatus.PENDING, OrderStatus.PROCESSING, 0, 10)).thenReturn(4);
+
+        PromotionReport report = job.autoUpdatePendingOrders();
+
+        assertEquals(4, report.rowsPromoted());
+        assertEquals(1, report.chunksProcessed());
+        assertEquals(1, report.chunksSkipped());
+        verify(orderRepository, never()).transitionRange(any(), any(), eq(20L), eq(30L));
+        verify(eventRepository).insertRangeTransitions(OrderStatus.PENDING, OrderStatus.PROCESSING, 0, 10);
+        verify(eventRepository, never()).insertRangeTransitions(any(), any(), eq(20L), eq(30L));
+        verify(leases).release("order-promotion:0");
+        verify(leases, never()).release("order-promotion:2");
+        verify(orderCache).invalidateRangeAfterCommit(0, 10);
+        verify(orderStats).recordTransitionAfterCommit(OrderStatus.PENDING, OrderStatus.PROCESSING, 4, 40.0);
+
+        assertEquals(4, meterRegistry.get("orders.promotion.rows").counter().count());
+        assertEquals(1, meterRegistry.get("orders.promotion.chunks").tag("result", "skipped").counter().count());
+        assertEquals(1, meterRegistry.get("orders.promotion.duration").timer().count());
+    }
+
+    @Test
+    void testAutoUpdatePendingOrders_NoPendingOrders() {
+        when(orderRepository.findFirstIdByStatusFrom(OrderStatus.PENDING, 0)).thenReturn(null);
+
+        PromotionReport report = job.autoUpdatePendingOrders();
+
+        assertEquals(0, report.rowsPromoted());
+        assertEquals(0, report.chunksProcessed());
+        verify(orderRepository, never()).transitionRange(any(), any(), anyLong(), anyLong());
+        verifyNoInteractions(leases);
+    }
+
+    @Test
+    void testAutoUpdatePendingOrders_ReleasesLeaseWhenChunkFails() {
+        when(orderRepository.findFirstIdByStatusFrom(OrderStatus.PENDING, 0)).thenReturn(1L);
+        when(leases.tryAcquire(eq("order-promotion:0"), anyLong())).thenReturn(true);
+        when(orderRepository.transitionRange(any(), any(), anyLong(), anyLong()))
+                .thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> job.autoUpdatePendingOrders());
+        verify(leases).release("order-promotion:0");
+    }
+}
@@ -1,15 +1,29 @@
 package com.sample.ecommerceOrderservice.service;
 
+import com.sample.ecommerceOrderservice.config.Shards;
+import com.sample.ecommerceOrderservice.dto.BatchOrderResult;
+import com.sample.ecommerceOrderservice.dto.BulkStatusResult;
+import com.sample.ecommerceOrderservice.dto.BulkStatusUpdate;
 import com.sample.ecommerceOrderservice.dto.OrderItemDTO;
 import com.sample.ecommerceOrderservice.entity.OrderEntity;
+import com.sample.ecommerceOrderservice.entity.OrderEventEntity;
 import com.sample.ecommerceOrderservice.entity.OrderStatus;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.ArchivedOrderRepository;
+import com.sample.ecommerceOrderservice.repository.OrderEventRepository;
 import com.sample.ecommerceOrderservice.repository.OrderItemRepository;
+import com.sample.ecommerceOrderservice.repository.OrderItemRow;
 import com.sample.ecommerceOrderservice.repository.OrderRepository;
+import com.sample.ecommerceOrderservice.repository.OrderRow;
+import com.sample.ecommerceOrderservice.repository.OrderState;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.*;
 
@@ -25,6 +39,30 @@ class OrderServiceTest {
     @Mock
     private OrderItemRepository itemRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private OrderCache orderCache = new OrderCache(100, 60000);
+
+    @Mock
+    private OrderStats orderStats;
+
+    @Mock
+    private OrderEventRepository eventRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private ArchivedOrderItemRepository archivedItemRepository;
+
+    @Spy
+    private Shards shards = new Shards(1);
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -51,84 +89,296 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals(OrderStatus.PENDING, result.getStatus());
         assertEquals(2, result.getItems().size());
+        assertEquals(1250, result.getTotalPrice());
+        assertEquals(2, result.getItemCount());
         verify(orderRepository, times(1)).save(any(OrderEntity.class));
+        verify(orderStats).recordCreatedAfterCommit(1, 1250.0);
+    }
+
+    @Test
+    void testCreateOrders_RejectsInvalidOrdersIndividually() {
+        List<List<OrderItemDTO>> orders = List.of(
+                List.of(new OrderItemDTO("Laptop", 1, 1200)),
+                List.of(),
+                List.of(new OrderItemDTO("Mouse", 0, 25)),
+                List.of(new OrderItemDTO("Mouse", 2, 25)));
+
+        var results = orderService.createOrders(orders);
+
+        assertEquals(4, results.size());
+        assertEquals(BatchOrderResult.Outcome.CREATED, results.get(0).getOutcome());
+        assertEquals(BatchOrderResult.Outcome.REJECTED, results.get(1).getOutcome());
+        assertEquals(BatchOrderResult.Outcome.REJECTED, results.get(2).getOutcome());
+        assertEquals(BatchOrderResult.Outcome.CREATED, results.get(3).getOutcome());
+        assertEquals(3, results.get(3).getIndex());
+        verify(orderRepository, times(1)).saveAll(any());
+        verify(entityManager, times(1)).clear();
+    }
+
+    @Test
+    void testCreateOrders_FlushesInSlices() {
+        List<List<OrderItemDTO>> orders = Collections.nCopies(120, List.of(new OrderItemDTO("Pen", 1, 2)));
+
+        var results = orderService.createOrders(orders);
+
+        assertEquals(120, results.size());
+        verify(orderRepository, times(3)).saveAll(any());
+        verify(orderRepository, times(3)).flush();
+    }
+
+    @Test
+    void testCreateOrders_TooManyOrders() {
+        List<List<OrderItemDTO>> orders = Collections.nCopies(OrderService.MAX_BATCH_ORDERS + 1,
+                List.of(new OrderItemDTO("Pen", 1, 2)));
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrders(orders));
+        verify(orderRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testGetOrder_BuildsDtoFromProjections() {
+        when(orderRepository.findRowById(1L))
+                .thenReturn(Optional.of(new OrderRow(1L, OrderStatus.PENDING, new Date(), 1250, 2, 0L, null)));
+        when(itemRepository.findRowsByOrderIds(List.of(1L))).thenReturn(List.of(
+                new OrderItemRow(1L, "Laptop", 1, 1200),
+                new OrderItemRow(1L, "Mouse", 2, 25)));
+
+        var order = orderService.getOrder(1L).orElseThrow();
+
+        assertEquals(2, order.getItems().size());
+        assertEquals(1250, order.getTotalPrice());
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetOrder_FallsBackToArchive() {
+        when(orderRepository.findRowById(5L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findRowById(5L))
+                .thenReturn(Optional.of(new OrderRow(5L, OrderStatus.DELIVERED, new Date(), 40, 1, 3L, new Date())));
+        when(archivedItemRepository.findRowsByOrderIds(List.of(5L))).thenReturn(List.of(new OrderItemRow(5L, "Lamp", 1, 40)));
+
+        var order = orderService.getOrder(5L).orElseThrow();
+
+        assertEquals(OrderStatus.DELIVERED, order.getStatus());
+        assertEquals("Lamp", order.getItems().get(0).getName());
+        verify(itemRepository, never()).findRowsByOrderIds(any());
+    }
+
+    @Test
+    void testUpdateStatus_ArchivedOrderIsIllegalTransition() {
+        when(orderRepository.transition(5L, Set.of(OrderStatus.PROCESSING), OrderStatus.SHIPPED, null)).thenReturn(0);
+        when(orderRepository.findStatusById(5L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findStatusById(5L)).thenReturn(Optional.of(OrderStatus.DELIVERED));
+
+        TransitionResult result = orderService.updateStatus(5L, OrderStatus.SHIPPED);
+
+        assertEquals(TransitionResult.Outcome.ILLEGAL_TRANSITION, result.outcome());
+        assertEquals(OrderStatus.DELIVERED, result.status());
+    }
+
+    @Test
+    void testGetOrder_ServedFromCacheUntilStatusChanges() {
+        when(orderRepository.findRowById(1L))
+                .thenReturn(Optional.of(new OrderRow(1L, OrderStatus.PENDING, new Date(), 1250, 2, 0L, null)));
+        when(orderRepository.transition(1L, Set.of(OrderStatus.PENDING), OrderStatus.PROCESSING, null)).thenReturn(1);
+
+        orderService.getOrder(1L);
+        orderService.getOrder(1L);
+        verify(orderRepository, times(1)).findRowById(1L);
+
+        orderService.updateStatus(1L, OrderStatus.PROCESSING);
+        orderService.getOrder(1L);
+        verify(orderRepository, times(2)).findRowById(1L);
+    }
+
+    @Test
+    void testGetOrder_NotFoundSkipsItemQuery() {
+        when(orderRepository.findRowById(9L)).thenReturn(Optional.empty());
+
+        assertTrue(orderService.getOrder(9L).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void testListOrderPage_ReturnsCursorWhenMoreRowsExist() {
+        Date now = new Date();
+        when(orderRepository.findPageRows(Limit.of(3))).thenReturn(List.of(
+                new OrderRow(1L, OrderStatus.PENDING, now, 0, 0, 0L, null),
+                new OrderRow(2L, OrderStatus.PENDING, now, 25, 1, 0L, null),
+                new OrderRow(3L, OrderStatus.PENDING, now, 0, 0, 0L, null)));
+        when(itemRepository.findRowsByOrderIds(List.of(1L, 2L)))
+                .thenReturn(List.of(new OrderItemRow(2L, "Mouse", 1, 25)));
+
+        var page = orderService.listOrderPage(Optional.empty(), Optional.empty(), 2, true);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.getItems().get(0).getItems().isEmpty());
+        assertEquals(1, page.getItems().get(1).getItems().size());
+        assertEquals(new OrderCursor(now, 2L).encode(), page.getNextCursor());
+    }
+
+    @Test
+    void testListOrderPage_SummaryViewSkipsItems() {
+        when(orderRepository.findPageRows(Limit.of(11)))
+                .thenReturn(List.of(new OrderRow(1L, OrderStatus.PENDING, new Date(), 99.5, 3, 0L, null)));
+
+        var page = orderService.listOrderPage(Optional.empty(), Optional.empty(), 10, false);
+
+        assertNull(page.getItems().get(0).getItems());
+        assertEquals(99.5, page.getItems().get(0).getTotalPrice());
+        assertEquals(3, page.getItems().get(0).getItemCount());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void testListOrderPage_LastPageHasNoCursor() {
+        OrderCursor cursor = new OrderCursor(new Date(1000L), 7L);
+        when(orderRepository.findPageRowsAfterByStatus(OrderStatus.PENDING, cursor.createdAt(), 7L, Limit.of(3)))
+                .thenReturn(List.of(new OrderRow(8L, OrderStatus.PENDING, new Date(2000L), 0, 0, 0L, null)));
+
+        var page = orderService.listOrderPage(Optional.of(OrderStatus.PENDING), Optional.of(cursor.encode()), 2, true);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testListOrderPage_RejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.listOrderPage(Optional.empty(), Optional.of("not-a-cursor"), 10, true));
     }
 
     @Test
     void testCancelOrder_WhenPending_Success() {
-        orderEntity.setStatus(OrderStatus.PENDING);
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(orderEntity));
+        when(orderRepository.transition(1L, Set.of(OrderStatus.PENDING), OrderStatus.CANCELED, null)).thenReturn(1);
+        when(orderRepository.findTotalPriceById(1L)).thenReturn(Optional.of(1250.0));
 
-        boolean canceled = orderService.cancelOrder(1L);
+        TransitionResult result = orderService.cancelOrder(1L);
 
-        assertTrue(canceled);
-        assertEquals(OrderStatus.CANCELED, orderEntity.getStatus());
-        verify(orderRepository, times(1)).save(orderEntity);
+        assertTrue(result.applied());
+        assertEquals(OrderStatus.CANCELED, result.status());
+        verify(orderRepository, never()).findById(any());
+        verify(orderRepository, never()).save(any());
+        verify(orderStats).recordTransitionAfterCommit(OrderStatus.PENDING, OrderStatus.CANCELED, 1, 1250.0);
+        ArgumentCaptor<OrderEventEntity> event = ArgumentCaptor.forClass(OrderEventEntity.class);
+        verify(eventRepository).save(event.capture());
+        assertEquals(1L, event.getValue().getOrderId());
+        assertEquals(OrderStatus.PENDING, event.getValue().getFromStatus());
+        assertEquals(OrderStatus.CANCELED, event.getValue().getToStatus());
     }
 
     @Test
     void testCancelOrder_WhenProcessing_Fails() {
-        orderEntity.setStatus(OrderStatus.PROCESSING);
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(orderEntity));
+        when(orderRepository.transition(1L, Set.of(OrderStatus.PENDING), OrderStatus.CANCELED, null)).thenReturn(0);
+        when(orderRepository.findStatusById(1L)).thenReturn(Optional.of(OrderStatus.PROCESSING));
 
-        boolean canceled = orderService.cancelOrder(1L);
+        TransitionResult result = orderService.cancelOrder(1L);
 
-        assertFalse(canceled);
-        verify(orderRepository, never()).save(orderEntity);
+        assertEquals(TransitionResult.Outcome.ILLEGAL_TRANSITION, result.outcome());
+        assertEquals(OrderStatus.PROCESSING, result.status());
+        verify(orderRepository, never()).save(any());
+        verify(eventRepository, never()).save(any());
     }
 
     @Test
     void testCancelOrder_OrderNotFound() {
-        when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+        when(orderRepository.transition(999L, Set.of(OrderStatus.PENDING), OrderStatus.CANCELED, null)).thenReturn(0);
+        when(orderRepository.findStatusById(999L)).thenReturn(Optional.empty());
 
-        boolean canceled = orderService.cancelOrder(999L);
+        TransitionResult result = orderService.cancelOrder(999L);
 
-        assertFalse(canceled);
+        assertEquals(TransitionResult.Outcome.NOT_FOUND, result.outcome());
         verify(orderRepository, never()).save(any());
     }
 
     @Test
     void testUpdateStatus_Success() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(orderEntity));
+        when(orderRepository.transition(1L, Set.of(OrderStatus.PROCESSING), OrderStatus.SHIPPED, null)).thenReturn(1);
 
-        boolean updated = orderService.updateStatus(1L, OrderStatus.SHIPPED);
+        TransitionResult result = orderService.updateStatus(1L, OrderStatus.SHIPPED);
 
-        assertTrue(updated);
-        assertEquals(OrderStatus.SHIPPED, orderEntity.getStatus());
-        verify(orderRepository, times(1)).save(orderEntity);
+        assertTrue(result.applied());
+        verify(orderRepository, never()).findStatusById(any());
+        verify(orderRepository, never()).save(any());
     }
 
     @Test
     void testUpdateStatus_OrderNotFound() {
-        when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+        when(orderRepository.transition(999L, Set.of(OrderStatus.PROCESSING), OrderStatus.SHIPPED, null)).thenReturn(0);
+        when(orderRepository.findStatusById(999L)).thenReturn(Optional.empty());
 
-        boolean updated = orderService.updateStatus(999L, OrderStatus.SHIPPED);
+        TransitionResult result = orderService.updateStatus(999L, OrderStatus.SHIPPED);
 
-        assertFalse(updated);
+        assertEquals(TransitionResult.Outcome.NOT_FOUND, result.outcome());
         verify(orderRepository, never()).save(any());
     }
 
     @Test
-    void testAutoUpdatePendingOrders() {
-        OrderEntity pendingOrder = new OrderEntity();
-        pendingOrder.setStatus(OrderStatus.PENDING);
+    void testUpdateStatus_IntoPendingIsNeverAllowed() {
+        when(orderRepository.findStatusById(1L)).thenReturn(Optional.of(OrderStatus.PROCESSING));
 
-        when(orderRepository.findByStatus(OrderStatus.PENDING))
-                .thenReturn(List.of(pendingOrder));
+        TransitionResult result = orderService.updateStatus(1L, OrderStatus.PENDING);
 
-        orderService.autoUpdatePendingOrders();
+        assertEquals(TransitionResult.Outcome.ILLEGAL_TRANSITION, result.outcome());
+        verify(orderRepository, never()).transition(any(), any(), any(), any());
+    }
+
+    @Test
+    void testUpdateStatus_LostRaceIsConflictWithoutRetry() {
+        when(orderRepository.transition(1L, Set.of(OrderStatus.PROCESSING), OrderStatus.SHIPPED, null)).thenReturn(0);
+        when(orderRepository.findStatusById(1L)).thenReturn(Optional.of(OrderStatus.PROCESSING));
 
-        assertEquals(OrderStatus.PROCESSING, pendingOrder.getStatus());
-        verify(orderRepository, times(1)).save(pendingOrder);
+        TransitionResult result = orderService.updateStatus(1L, OrderStatus.SHIPPED);
+
+        assertEquals(TransitionResult.Outcome.CONFLICT, result.outcome());
+        assertEquals(OrderStatus.PROCESSING, result.status());
+        verify(orderRepository, times(1)).transition(any(), any(), any(), any());
+        verify(eventRepository, never()).save(any());
+        verifyNoInteractions(orderStats);
     }
 
     @Test
-    void testAutoUpdatePendingOrders_NoPendingOrders() {
-        when(orderRepository.findByStatus(OrderStatus.PENDING))
-                .thenReturn(Collections.emptyList());
+    void testUpdateStatus_StaleVersionIsConflict() {
+        when(orderRepository.transition(1L, Set.of(OrderStatus.PROCESSING), OrderStatus.SHIPPED, 3L)).thenReturn(0);
+        when(orderRepository.findStatusById(1L)).thenReturn(Optional.of(OrderStatus.PROCESSING));
 
-        orderService.autoUpdatePendingOrders();
+        TransitionResult result = orderService.updateStatus(1L, OrderStatus.SHIPPED, 3L);
 
-        verify(orderRepository, never()).save(any());
+        assertEquals(TransitionResult.Outcome.CONFLICT, result.outcome());
+    }
+
+    @Test
+    void testUpdateStatuses_OneUpdatePerDistinctTransition() {
+        when(orderRepository.lockStates(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                new OrderState(1L, OrderStatus.PENDING, 0L, 100.0),
+                new OrderState(2L, OrderStatus.PENDING, 0L, 50.0),
+                new OrderState(3L, OrderStatus.PROCESSING, 1L, 10.0)));
+        when(archivedOrderRepository.findStates(List.of(4L))).thenReturn(List.of(
+                new OrderState(4L, OrderStatus.DELIVERED, 3L, 5.0)));
+
+        List<BulkStatusResult> results = orderService.updateStatuses(List.of(
+                new BulkStatusUpdate.Transition(1L, OrderStatus.PROCESSING, null),
+                new BulkStatusUpdate.Transition(2L, OrderStatus.PROCESSING, null),
+                new BulkStatusUpdate.Transition(3L, OrderStatus.SHIPPED, null),
+                new BulkStatusUpdate.Transition(4L, OrderStatus.SHIPPED, null)));
+
+        assertEquals(List.of(TransitionResult.Outcome.APPLIED, TransitionResult.Outcome.APPLIED,
+                        TransitionResult.Outcome.APPLIED, TransitionResult.Outcome.ILLEGAL_TRANSITION),
+                results.stream().map(BulkStatusResult::getOutcome).toList());
+        verify(orderRepository).transitionAll(List.of(1L, 2L), OrderStatus.PROCESSING);
+        verify(orderRepository).transitionAll(List.of(3L), OrderStatus.SHIPPED);
+        verify(eventRepository).insertTransitions(List.of(1L, 2L), OrderStatus.PROCESSING);
+        verify(orderStats).recordTransitionAfterCommit(OrderStatus.PENDING, OrderStatus.PROCESSING, 2, 150.0);
+        verify(orderRepository, never()).transition(any(), any(), any(), any());
+    }
+
+    @Test
+    void testUpdateStatuses_RejectsDuplicateIds() {
+        List<BulkStatusUpdate.Transition> transitions = List.of(
+                new BulkStatusUpdate.Transition(1L, OrderStatus.PROCESSING, null),
+                new BulkStatusUpdate.Transition(1L, OrderStatus.CANCELED, null));
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateStatuses(transitions));
+        verify(orderRepository, never()).lockStates(any());
     }
 }